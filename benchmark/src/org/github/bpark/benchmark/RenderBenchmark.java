@@ -0,0 +1,166 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.benchmark;
+
+import org.github.bpark.generator.DocRenderer;
+import org.github.bpark.generator.PropertyDescriptor;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@linkplain DocRenderer}. The warm benchmark renders a batch with an initialized runtime and a
+ * parsed template, the cold benchmark creates a new runtime and parses the template for every batch. The cached
+ * benchmark repeats a batch which is already in the rendered text cache. The allocation rate is reported with the gc
+ * profiler, e.g. {@code java -jar gen-javadoc-benchmark.jar -prof gc}.
+ *
+ * @author Burt Parkers
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class RenderBenchmark {
+
+    /** The default getter template. */
+    private static final String DEFAULT_TEMPLATE =
+            "/**\n" +
+            " * @return the value for the field $field.\n" +
+            " */";
+
+    /** A template using conditions, loops, assignments and method calls. */
+    private static final String DIRECTIVE_TEMPLATE =
+            "/**\n" +
+            "#set($owner = \"${class_name}\")\n" +
+            "#if($field_type == \"boolean\")\n" +
+            " * @return true if $field is set in $owner.\n" +
+            "#else\n" +
+            " * @return the value for the field $field.toUpperCase() of $owner.\n" +
+            "#end\n" +
+            "#foreach($tag in [\"see\", \"since\"])\n" +
+            " * @$tag $full_class_name\n" +
+            "#end\n" +
+            " */";
+
+    /** The template kind. */
+    @Param({"default", "directives"})
+    public String templateKind;
+
+    /** The number of rendered properties per invocation. */
+    @Param({"1", "100", "10000", "100000"})
+    public int batchSize;
+
+    /** The template. */
+    private String template;
+
+    /** The rendered properties. */
+    private List<PropertyDescriptor> descriptors;
+
+    /** The renderer of the warm benchmark. */
+    private DocRenderer warmRenderer;
+
+    /** The renderer of the cached benchmark, the rendered text cache holds the whole batch. */
+    private DocRenderer cachedRenderer;
+
+
+    /** Creates the properties and the warm renderer. */
+    @Setup(Level.Trial)
+    public void setUp() {
+        template = "default".equals(templateKind) ? DEFAULT_TEMPLATE : DIRECTIVE_TEMPLATE;
+        descriptors = new ArrayList<PropertyDescriptor>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            String typeText = i % 4 == 0 ? "boolean" : "java.lang.String";
+            descriptors.add(new PropertyDescriptor("field" + i, typeText, "Bean" + (i % 100),
+                    "org.example.Bean" + (i % 100), "benchmark"));
+        }
+        warmRenderer = DocRenderer.createIsolated();
+        warmRenderer.render(templateKind, template, descriptors.get(0));
+        cachedRenderer = DocRenderer.createIsolated(Long.MAX_VALUE);
+        for (PropertyDescriptor descriptor : descriptors) {
+            cachedRenderer.render(templateKind, template, descriptor);
+        }
+    }
+
+    /**
+     * Renders a batch with an initialized runtime and a cached template.
+     *
+     * @param blackhole consumes the results.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void renderWarm(Blackhole blackhole) {
+        for (PropertyDescriptor descriptor : descriptors) {
+            blackhole.consume(warmRenderer.render(templateKind, template, descriptor));
+        }
+    }
+
+    /**
+     * Repeats a batch, all texts are answered by the rendered text cache.
+     *
+     * @param blackhole consumes the results.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void renderCached(Blackhole blackhole) {
+        for (PropertyDescriptor descriptor : descriptors) {
+            blackhole.consume(cachedRenderer.render(templateKind, template, descriptor));
+        }
+    }
+
+    /**
+     * Creates a new runtime, parses the template and renders a batch.
+     *
+     * @param blackhole consumes the results.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5, batchSize = 1)
+    @Measurement(iterations = 20, batchSize = 1)
+    public void renderCold(Blackhole blackhole) {
+        DocRenderer coldRenderer = DocRenderer.createIsolated();
+        for (PropertyDescriptor descriptor : descriptors) {
+            blackhole.consume(coldRenderer.render(templateKind, template, descriptor));
+        }
+    }
+
+    /**
+     * Runs the benchmarks, the entry point of the executable jar. The arguments are passed to JMH, so the usual
+     * options like {@code -p batchSize=100} or {@code -prof gc} are available.
+     *
+     * @param args the JMH command line options.
+     * @throws Exception if a benchmark fails.
+     */
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+}
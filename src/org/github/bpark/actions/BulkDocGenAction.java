@@ -0,0 +1,75 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.actions;
+
+import com.intellij.analysis.AnalysisScope;
+import com.intellij.analysis.BaseAnalysisAction;
+import com.intellij.analysis.BaseAnalysisActionDialog;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import org.github.bpark.config.GeneratorConfig;
+import org.github.bpark.util.MethodType;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+
+/**
+ * Action for generating setter and getter documentation for a module, package, directory or custom scope. The
+ * generation runs as a cancellable background task. The overwrite option of the scope dialog is saved when the
+ * dialog is confirmed, like the other analysis options, and read by the started task, the action itself holds no
+ * state.
+ *
+ * @author Burt Parkers
+ */
+public class BulkDocGenAction extends BaseAnalysisAction {
+
+    /** Constructor. */
+    public BulkDocGenAction() {
+        super("Generate JavaDoc", "JavaDoc");
+    }
+
+    @Override
+    protected JComponent getAdditionalActionSettings(Project project, final BaseAnalysisActionDialog dialog) {
+        final JCheckBox overwriteCheckBox = new JCheckBox("Overwrite existing documentation",
+                new GeneratorConfig().isBulkOverwrite());
+        Disposer.register(dialog.getDisposable(), new Disposable() {
+            public void dispose() {
+                if (dialog.isOK()) {
+                    new GeneratorConfig().saveBulkOverwrite(overwriteCheckBox.isSelected());
+                }
+            }
+        });
+        return overwriteCheckBox;
+    }
+
+    @Override
+    protected void analyze(@NotNull Project project, AnalysisScope scope) {
+        boolean overwrite = new GeneratorConfig().isBulkOverwrite();
+        ProgressManager.getInstance().run(new BulkDocGenTask(project, scope, MethodType.SETTER_AND_GETTER, overwrite));
+    }
+}
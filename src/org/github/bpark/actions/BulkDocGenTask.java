@@ -0,0 +1,246 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.actions;
+
+import com.intellij.analysis.AnalysisScope;
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.concurrency.Semaphore;
+import org.github.bpark.config.DocConfigService;
+import org.github.bpark.config.TemplateSnapshot;
+import org.github.bpark.generator.ApplyScheduler;
+import org.github.bpark.generator.JavadocGenerator;
+import org.github.bpark.generator.DocEdit;
+import org.github.bpark.index.AccessorDocIndex;
+import org.github.bpark.index.AccessorEntry;
+import org.github.bpark.index.AccessorFileData;
+import org.github.bpark.metrics.PipelineMetrics;
+import org.github.bpark.metrics.RunMetrics;
+import org.github.bpark.util.MethodType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Background task generating the documentation for all java files of a scope. The comments of a file are rendered
+ * inside a read action in the background, afterwards they are inserted with one write command per file in the event
+ * dispatch thread, large files in slices by the {@linkplain ApplyScheduler}. Only the files which need work according
+ * to the {@linkplain AccessorDocIndex} are parsed.
+ *
+ * @author Burt Parkers
+ */
+public class BulkDocGenTask extends Task.Backgroundable {
+
+    /** The notification group. */
+    private static final String NOTIFICATION_GROUP = "gen-javadoc";
+
+    /** The scope to document. */
+    private final AnalysisScope scope;
+
+    /** The methods to document. */
+    private final MethodType methodType;
+
+    /** The overwrite flag, true if existing comments should be overwritten, otherwise false. */
+    private final boolean overwrite;
+
+    /** The generator. */
+    private final JavadocGenerator generator;
+
+    /** The settings, the same for the whole task. */
+    private final TemplateSnapshot snapshot = DocConfigService.getInstance().getSnapshot();
+
+    /** Number of processed files. */
+    private volatile int processedFileCount;
+
+    /** Number of changed files. */
+    private volatile int changedFileCount;
+
+
+    /**
+     * Constructor.
+     *
+     * @param project the project.
+     * @param scope the scope to document.
+     * @param methodType the methods to document.
+     * @param overwrite overwrite flag, true if existing comments should be overwritten, otherwise false.
+     */
+    public BulkDocGenTask(@NotNull Project project, @NotNull AnalysisScope scope, @NotNull MethodType methodType,
+                          boolean overwrite) {
+        super(project, "Generate JavaDoc", true);
+        this.scope = scope;
+        this.methodType = methodType;
+        this.overwrite = overwrite;
+        RunMetrics metrics = PipelineMetrics.getInstance().startRun("Generate JavaDoc for " + scope.getDisplayName());
+        this.generator = new JavadocGenerator(project, overwrite, snapshot.getFormatMode(), metrics);
+    }
+
+    public void run(@NotNull ProgressIndicator indicator) {
+        indicator.setIndeterminate(true);
+        indicator.setText("Collecting files...");
+        List<VirtualFile> files = collectFiles();
+        indicator.setIndeterminate(false);
+
+        for (int i = 0; i < files.size(); i++) {
+            indicator.checkCanceled();
+            VirtualFile file = files.get(i);
+            indicator.setFraction((double) i / files.size());
+            indicator.setText("Generating JavaDoc (" + (i + 1) + "/" + files.size() + ")");
+            indicator.setText2(file.getPresentableUrl());
+
+            processFile(file, indicator);
+            processedFileCount++;
+        }
+    }
+
+    @Override
+    public void onSuccess() {
+        notify("JavaDoc generated");
+    }
+
+    @Override
+    public void onCancel() {
+        notify("JavaDoc generation cancelled");
+    }
+
+    /**
+     * Collects the java files of the scope which need work. The files are looked up in the index, without
+     * overwriting only files with undocumented accessors of the selected type are returned.
+     *
+     * @return the files.
+     */
+    @NotNull
+    private List<VirtualFile> collectFiles() {
+        return DumbService.getInstance(myProject).runReadActionInSmartMode(new Computable<List<VirtualFile>>() {
+            public List<VirtualFile> compute() {
+                List<VirtualFile> files = new ArrayList<VirtualFile>();
+                GlobalSearchScope projectScope = GlobalSearchScope.projectScope(myProject);
+                for (VirtualFile file : AccessorDocIndex.getFiles(projectScope, !overwrite)) {
+                    if (scope.contains(file) && containsWork(file)) {
+                        files.add(file);
+                    }
+                }
+                return files;
+            }
+        });
+    }
+
+    /**
+     * Checks the indexed accessors of a file against the selected method type.
+     *
+     * @param file the file.
+     * @return true if the file contains accessors to document, otherwise false.
+     */
+    private boolean containsWork(@NotNull VirtualFile file) {
+        if (methodType == MethodType.SETTER_AND_GETTER) {
+            return true;
+        }
+        AccessorFileData fileData = AccessorDocIndex.getFileData(myProject, file);
+        if (fileData == null) {
+            return false;
+        }
+        for (AccessorEntry entry : fileData.getEntries()) {
+            if (entry.getKind() == methodType && (overwrite || !entry.isDocumented())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Renders the comments of a file in a read action and inserts them in the event dispatch thread. Waits until the
+     * comments are inserted.
+     *
+     * @param file the file.
+     * @param indicator the progress indicator of the task, a cancellation stops the insertion after the current
+     *                  slice. Its fraction is left to the task.
+     */
+    private void processFile(@NotNull final VirtualFile file, @NotNull ProgressIndicator indicator) {
+        final PsiFile psiFile = ApplicationManager.getApplication().runReadAction(new Computable<PsiFile>() {
+            public PsiFile compute() {
+                return file.isValid() ? PsiManager.getInstance(myProject).findFile(file) : null;
+            }
+        });
+        if (!(psiFile instanceof PsiJavaFile)) {
+            return;
+        }
+
+        final List<DocEdit> docEdits = ApplicationManager.getApplication().runReadAction(
+                new Computable<List<DocEdit>>() {
+                    public List<DocEdit> compute() {
+                        return generator.prepare((PsiJavaFile) psiFile, methodType, snapshot);
+                    }
+                });
+        if (docEdits.isEmpty()) {
+            return;
+        }
+
+        if (docEdits.size() < ApplyScheduler.SLICE_THRESHOLD) {
+            ApplicationManager.getApplication().invokeAndWait(new Runnable() {
+                public void run() {
+                    if (!myProject.isDisposed() && psiFile.isValid()) {
+                        generator.apply(psiFile, docEdits);
+                    }
+                }
+            }, ModalityState.NON_MODAL);
+        } else {
+            final Semaphore semaphore = new Semaphore();
+            semaphore.down();
+            new ApplyScheduler(myProject, generator, psiFile, docEdits, indicator, false).start(new Runnable() {
+                public void run() {
+                    semaphore.up();
+                }
+            });
+            semaphore.waitFor();
+        }
+        changedFileCount++;
+    }
+
+    /**
+     * Shows the counters of the run.
+     *
+     * @param title the notification title.
+     */
+    private void notify(@NotNull String title) {
+        String content = processedFileCount + " files processed, " + generator.getWrittenCount() + " comments in "
+                + changedFileCount + " files generated, " + generator.getSkippedCount()
+                + " unchanged comments skipped, " + generator.getDiscardedCount()
+                + " comments discarded because the method changed meanwhile.";
+        Notifications.Bus.notify(new Notification(NOTIFICATION_GROUP, title, content, NotificationType.INFORMATION),
+                myProject);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.actions;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.PlatformDataKeys;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vcs.changes.ChangeListManager;
+import org.github.bpark.config.DocConfigService;
+import org.github.bpark.config.TemplateSnapshot;
+import org.github.bpark.generator.JavadocGenerator;
+import org.github.bpark.metrics.PipelineMetrics;
+import org.github.bpark.metrics.RunMetrics;
+import org.github.bpark.vcs.ChangedAccessorDocumenter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Action for generating setter and getter documentation only for the accessors in changed lines of the locally
+ * changed files. The comments are rendered in the background and inserted afterwards.
+ *
+ * @author Burt Parkers
+ */
+public class ChangedDocGenAction extends AnAction {
+
+    /** The notification group. */
+    private static final String NOTIFICATION_GROUP = "gen-javadoc";
+
+    @Override
+    public void actionPerformed(AnActionEvent e) {
+        Project project = e.getData(PlatformDataKeys.PROJECT);
+        if (project != null) {
+            ProgressManager.getInstance().run(new ChangedDocGenTask(project));
+        }
+    }
+
+    @Override
+    public void update(AnActionEvent e) {
+        e.getPresentation().setEnabled(e.getData(PlatformDataKeys.PROJECT) != null);
+    }
+
+    /**
+     * Background task rendering the comments of the changed accessors.
+     */
+    private static class ChangedDocGenTask extends Task.Backgroundable {
+
+        /** The generator. */
+        private final JavadocGenerator generator;
+
+        /** The documenter. */
+        private final ChangedAccessorDocumenter documenter;
+
+        /**
+         * Constructor.
+         *
+         * @param project the project.
+         */
+        ChangedDocGenTask(@NotNull Project project) {
+            super(project, "Generate JavaDoc for Changes", true);
+            TemplateSnapshot snapshot = DocConfigService.getInstance().getSnapshot();
+            RunMetrics metrics = PipelineMetrics.getInstance().startRun("Generate JavaDoc for changes");
+            generator = new JavadocGenerator(project, false, snapshot.getFormatMode(), metrics);
+            documenter = new ChangedAccessorDocumenter(project, generator, snapshot);
+        }
+
+        public void run(@NotNull ProgressIndicator indicator) {
+            indicator.setText("Rendering JavaDoc for changed accessors...");
+            documenter.prepare(ChangeListManager.getInstance(myProject).getAllChanges(), indicator);
+        }
+
+        @Override
+        public void onSuccess() {
+            if (myProject.isDisposed()) {
+                return;
+            }
+            int changedFileCount = documenter.apply();
+            String content = generator.getWrittenCount() + " comments in " + changedFileCount
+                    + " changed files generated.";
+            Notifications.Bus.notify(new Notification(NOTIFICATION_GROUP, "JavaDoc generated", content,
+                    NotificationType.INFORMATION), myProject);
+        }
+    }
+}
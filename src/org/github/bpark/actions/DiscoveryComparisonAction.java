@@ -0,0 +1,227 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.actions;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.PlatformDataKeys;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.github.bpark.index.AccessorDocIndex;
+import org.github.bpark.util.AccessorDiscovery;
+import org.github.bpark.util.GenDocPsiUtil;
+import org.github.bpark.util.MethodType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Internal action comparing the stub based accessor discovery with the discovery walking the PSI tree. Both passes
+ * run over all project files containing accessors, the stub pass runs first so it does not find the trees loaded by
+ * the other pass. The heap numbers are measured after a garbage collection and are approximate.
+ *
+ * @author Burt Parkers
+ */
+public class DiscoveryComparisonAction extends AnAction {
+
+    /** The logger. */
+    private static final Logger LOG = Logger.getInstance("#org.github.bpark.actions.DiscoveryComparisonAction");
+
+    /** The notification group. */
+    private static final String NOTIFICATION_GROUP = "gen-javadoc";
+
+    @Override
+    public void actionPerformed(AnActionEvent e) {
+        Project project = e.getData(PlatformDataKeys.PROJECT);
+        if (project != null) {
+            ProgressManager.getInstance().run(new ComparisonTask(project));
+        }
+    }
+
+    @Override
+    public void update(AnActionEvent e) {
+        e.getPresentation().setEnabled(e.getData(PlatformDataKeys.PROJECT) != null);
+    }
+
+    /**
+     * Background task running both discovery passes.
+     */
+    private static class ComparisonTask extends Task.Backgroundable {
+
+        /** The result of the stub pass. */
+        private PassResult stubResult;
+
+        /** The result of the tree pass. */
+        private PassResult treeResult;
+
+        /**
+         * Constructor.
+         *
+         * @param project the project.
+         */
+        ComparisonTask(@NotNull Project project) {
+            super(project, "Compare Accessor Discovery", true);
+        }
+
+        public void run(@NotNull ProgressIndicator indicator) {
+            indicator.setText("Collecting files...");
+            List<VirtualFile> files = DumbService.getInstance(myProject).runReadActionInSmartMode(
+                    new Computable<List<VirtualFile>>() {
+                        public List<VirtualFile> compute() {
+                            return new ArrayList<VirtualFile>(
+                                    AccessorDocIndex.getFiles(GlobalSearchScope.projectScope(myProject), false));
+                        }
+                    });
+
+            indicator.setText("Discovering accessors with stubs...");
+            stubResult = runPass(files, true, indicator);
+            indicator.setText("Discovering accessors in the PSI tree...");
+            treeResult = runPass(files, false, indicator);
+        }
+
+        @Override
+        public void onSuccess() {
+            String content = "Stubs: " + stubResult + "<br>Tree: " + treeResult;
+            LOG.info("Accessor discovery, stubs: " + stubResult + ", tree: " + treeResult);
+            Notifications.Bus.notify(new Notification(NOTIFICATION_GROUP, "Accessor discovery", content,
+                    NotificationType.INFORMATION), myProject);
+        }
+
+        /**
+         * Runs one discovery pass over all files.
+         *
+         * @param files the files.
+         * @param stubs true to use the stub based discovery, false to walk the tree.
+         * @param indicator the progress indicator.
+         * @return the result.
+         */
+        @NotNull
+        private PassResult runPass(@NotNull List<VirtualFile> files, final boolean stubs,
+                                   @NotNull ProgressIndicator indicator) {
+            long usedBefore = usedHeap();
+            long start = System.nanoTime();
+            int accessorCount = 0;
+            for (int i = 0; i < files.size(); i++) {
+                indicator.checkCanceled();
+                indicator.setFraction((double) i / files.size());
+                final VirtualFile file = files.get(i);
+                accessorCount += DumbService.getInstance(myProject).runReadActionInSmartMode(
+                        new Computable<Integer>() {
+                            public Integer compute() {
+                                return discover(file, stubs);
+                            }
+                        });
+            }
+            long elapsed = System.nanoTime() - start;
+            return new PassResult(files.size(), accessorCount, elapsed, usedHeap() - usedBefore);
+        }
+
+        /**
+         * Discovers the accessors of all classes of a file.
+         *
+         * @param file the file.
+         * @param stubs true to use the stub based discovery, false to walk the tree.
+         * @return the number of accessors.
+         */
+        private int discover(@NotNull VirtualFile file, boolean stubs) {
+            PsiFile psiFile = file.isValid() ? PsiManager.getInstance(myProject).findFile(file) : null;
+            if (!(psiFile instanceof PsiJavaFile)) {
+                return 0;
+            }
+            int count = 0;
+            for (PsiClass psiClass : GenDocPsiUtil.collectClasses((PsiJavaFile) psiFile)) {
+                count += stubs ? AccessorDiscovery.computeAccessors(psiClass).size()
+                        : GenDocPsiUtil.retrieveMethodsFromTree(psiClass, MethodType.SETTER_AND_GETTER).size();
+            }
+            return count;
+        }
+
+        /**
+         * Returns the used heap after a garbage collection.
+         *
+         * @return the used heap in bytes.
+         */
+        private static long usedHeap() {
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+
+    /**
+     * Result of one discovery pass.
+     */
+    private static class PassResult {
+
+        /** Number of files. */
+        private final int fileCount;
+
+        /** Number of accessors. */
+        private final int accessorCount;
+
+        /** Elapsed time in nanoseconds. */
+        private final long elapsedNanos;
+
+        /** Heap growth in bytes. */
+        private final long heapGrowth;
+
+        /**
+         * Constructor.
+         *
+         * @param fileCount number of files.
+         * @param accessorCount number of accessors.
+         * @param elapsedNanos elapsed time in nanoseconds.
+         * @param heapGrowth heap growth in bytes.
+         */
+        PassResult(int fileCount, int accessorCount, long elapsedNanos, long heapGrowth) {
+            this.fileCount = fileCount;
+            this.accessorCount = accessorCount;
+            this.elapsedNanos = elapsedNanos;
+            this.heapGrowth = heapGrowth;
+        }
+
+        @Override
+        public String toString() {
+            return accessorCount + " accessors in " + fileCount + " files, " + elapsedNanos / 1000000 + " ms, heap "
+                    + (heapGrowth >= 0 ? "+" : "") + heapGrowth / 1024 + " KB";
+        }
+    }
+}
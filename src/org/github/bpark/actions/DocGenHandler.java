@@ -25,50 +25,68 @@
 
 package org.github.bpark.actions;
 
-import com.intellij.codeInsight.generation.PsiMethodMember;
-import com.intellij.ide.util.MemberChooser;
-import com.intellij.ide.util.MemberChooserBuilder;
 import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.openapi.actionSystem.LangDataKeys;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.editor.actionSystem.EditorWriteActionHandler;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
 import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
 import com.intellij.psi.PsiMethod;
-import org.github.bpark.config.GetterDocConfig;
-import org.github.bpark.config.SetterDocConfig;
-import org.github.bpark.generator.JavadocGenerator;
+import org.github.bpark.config.DocConfigService;
+import org.github.bpark.generator.GenerationRequest;
+import org.github.bpark.generator.GenerationScheduler;
+import org.github.bpark.gui.chooser.AccessorChooserDialog;
+import org.github.bpark.metrics.PipelineMetrics;
+import org.github.bpark.metrics.RunMetrics;
 import org.github.bpark.util.GenDocPsiUtil;
 import org.github.bpark.util.MethodType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Handler for all generating actions. Default method type is {@linkplain MethodType#SETTER_AND_GETTER}, and no
- * overwrite existing documentation.
+ * overwrite existing documentation. The handler documents the class at the caret, or in whole file mode all classes
+ * of the file including the nested classes, with one chooser and one write command. The handler is shared by all
+ * invocations and holds no state of a run, the options of each invocation are passed in a
+ * {@linkplain GenerationRequest}.
  *
  * @author Burt Parkers
  */
 public class DocGenHandler extends EditorWriteActionHandler {
 
-    /** Default type. */
-    private MethodType methodType = MethodType.SETTER_AND_GETTER;
+    /** The type of the documented methods. */
+    private final MethodType methodType;
 
-    /** Flag for overwrite existing documentation configuration. */
-    private boolean overwrite;
+    /** Flag for documenting all classes of the file instead of the class at the caret. */
+    private final boolean wholeFile;
 
     /** Default constructor with default settings. */
     public DocGenHandler() {
+        this(MethodType.SETTER_AND_GETTER);
     }
 
     /** Constructor with MethodType Parameter. */
     public DocGenHandler(MethodType methodType) {
+        this(methodType, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param methodType the methods to document.
+     * @param wholeFile true to document all classes of the file, false to document the class at the caret.
+     */
+    public DocGenHandler(MethodType methodType, boolean wholeFile) {
         this.methodType = methodType;
+        this.wholeFile = wholeFile;
     }
 
     @Override
@@ -76,6 +94,14 @@ public class DocGenHandler extends EditorWriteActionHandler {
         final Project project = LangDataKeys.PROJECT.getData(dataContext);
         assert project != null;
 
+        if (wholeFile) {
+            PsiJavaFile psiJavaFile = getSubjectFile(dataContext);
+            assert psiJavaFile != null;
+
+            showDialog(project, psiJavaFile);
+            return;
+        }
+
         PsiClass psiClass = GenDocPsiUtil.getSubjectClass(editor, dataContext);
         assert psiClass != null;
 
@@ -83,35 +109,71 @@ public class DocGenHandler extends EditorWriteActionHandler {
     }
 
     /**
-     * This method creates and shows the method selection dialog.
+     * This method creates and shows one method selection dialog for the accessors of all classes of a file.
+     *
+     * @param project the project.
+     * @param psiJavaFile the file.
+     */
+    private void showDialog(@NotNull Project project, @NotNull final PsiJavaFile psiJavaFile) {
+        final RunMetrics metrics = PipelineMetrics.getInstance().createRun("Generate JavaDoc for "
+                + psiJavaFile.getName());
+        showDialog(project, psiJavaFile, null, metrics, new Computable<List<PsiMethod>>() {
+            public List<PsiMethod> compute() {
+                if (!psiJavaFile.isValid()) {
+                    return Collections.emptyList();
+                }
+                return GenDocPsiUtil.retrieveMethods(psiJavaFile, methodType, metrics);
+            }
+        });
+    }
+
+    /**
+     * This method creates and shows the method selection dialog for the accessors of a class.
      *
      * @param project the project.
      * @param psiClass the class.
      */
-    private void showDialog(@NotNull final Project project, @NotNull final PsiClass psiClass) {
-        final MemberChooserBuilder<PsiMethodMember> builder = new MemberChooserBuilder<PsiMethodMember>(project);
-        builder.setTitle("Generate JavaDoc");
-        builder.setHeaderPanel(createHeader());
-        List<PsiMethod> methodList = GenDocPsiUtil.retrieveMethods(psiClass, methodType);
-        final PsiMethodMember[] dialogMembers = GenDocPsiUtil.convertPsiMethodsToMembers(methodList);
+    private void showDialog(@NotNull Project project, @NotNull final PsiClass psiClass) {
+        final RunMetrics metrics = PipelineMetrics.getInstance().createRun("Generate JavaDoc for "
+                + psiClass.getName());
+        showDialog(project, psiClass.getContainingFile(), psiClass, metrics, new Computable<List<PsiMethod>>() {
+            public List<PsiMethod> compute() {
+                if (!psiClass.isValid()) {
+                    return Collections.emptyList();
+                }
+                return GenDocPsiUtil.retrieveMethods(psiClass, methodType, metrics);
+            }
+        });
+    }
+
+    /**
+     * Shows the method selection dialog, the accessors are retrieved in the background while the dialog is showing.
+     * The selection and the options of the dialog are submitted as an immutable {@linkplain GenerationRequest} to
+     * the {@linkplain GenerationScheduler}.
+     *
+     * @param project the project.
+     * @param psiFile the documented file.
+     * @param scopeClass the documented class, null for all classes of the file.
+     * @param metrics the metrics of the run, it becomes the last run when the scheduler starts the request.
+     * @param loader retrieves the accessors, called inside a read action.
+     */
+    private void showDialog(@NotNull final Project project, @NotNull final PsiFile psiFile,
+                            @Nullable final PsiClass scopeClass, @NotNull final RunMetrics metrics,
+                            @NotNull final Computable<List<PsiMethod>> loader) {
         SwingUtilities.invokeLater(new Runnable() {
             public void run() {
                 if (project.isDisposed()) return;
-                final MemberChooser dialog = builder.createBuilder(dialogMembers);
-                dialog.selectElements(dialogMembers);
+                JCheckBox overwriteCheckBox = new JCheckBox("Overwrite existing documentation");
+                AccessorChooserDialog dialog = new AccessorChooserDialog(project, createHeader(overwriteCheckBox),
+                        scopeClass == null);
+                dialog.load(loader);
                 dialog.show();
 
-                if (MemberChooser.OK_EXIT_CODE == dialog.getExitCode()) {
-
-                    List<PsiMethod> selectedMethodList = GenDocPsiUtil.convertMembersToPsiMethods(dialog.getSelectedElements());
-                    JavadocGenerator generator = new JavadocGenerator(project, overwrite);
-
-                    List<PsiMethod> getterList = GenDocPsiUtil.filter(selectedMethodList, MethodType.GETTER);
-                    generator.generate(psiClass, getterList, new GetterDocConfig());
-
-                    List<PsiMethod> setterList = GenDocPsiUtil.filter(selectedMethodList, MethodType.SETTER);
-                    generator.generate(psiClass, setterList, new SetterDocConfig());
-
+                if (dialog.isOK() && psiFile.isValid()) {
+                    GenerationRequest request = new GenerationRequest(project, psiFile, scopeClass,
+                            dialog.getSelectedMethods(), methodType, overwriteCheckBox.isSelected(),
+                            DocConfigService.getInstance().getSnapshot(), metrics);
+                    GenerationScheduler.getInstance().submit(request);
                 }
             }
         });
@@ -119,26 +181,34 @@ public class DocGenHandler extends EditorWriteActionHandler {
 
     @Override
     public boolean isEnabled(Editor editor, DataContext dataContext) {
+        if (wholeFile) {
+            return getSubjectFile(dataContext) != null;
+        }
         return GenDocPsiUtil.getSubjectClass(editor, dataContext) != null;
     }
 
+    /**
+     * Returns the current java file.
+     *
+     * @param dataContext the datacontext.
+     * @return the current file or null if it is no java file.
+     */
+    @Nullable
+    private static PsiJavaFile getSubjectFile(DataContext dataContext) {
+        PsiFile file = LangDataKeys.PSI_FILE.getData(dataContext);
+        return file instanceof PsiJavaFile ? (PsiJavaFile) file : null;
+    }
+
     /**
      * Creates the dialog header. Needed for overwrite settings.
      *
+     * @param overwriteCheckBox the check box for the overwrite settings, read after the dialog is closed.
      * @return the panel containing the header.
      */
-    private JPanel createHeader() {
+    private static JPanel createHeader(@NotNull JCheckBox overwriteCheckBox) {
         FlowLayout layout = new FlowLayout(FlowLayout.LEFT);
         JPanel mainPanel = new JPanel(layout);
-        final JCheckBox checkBox = new JCheckBox();
-        mainPanel.add(checkBox);
-        mainPanel.add(new JLabel("Overwrite existing documentation"));
-        checkBox.addActionListener(new ActionListener() {
-
-            public void actionPerformed(ActionEvent e) {
-                overwrite = checkBox.getModel().isSelected();
-            }
-        });
+        mainPanel.add(overwriteCheckBox);
         return mainPanel;
     }
 
@@ -0,0 +1,49 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.actions;
+
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.ToggleAction;
+import org.github.bpark.config.DocConfigService;
+import org.github.bpark.config.GeneratorConfig;
+
+/**
+ * Action switching the documentation of new accessors on save on and off.
+ *
+ * @author Burt Parkers
+ */
+public class GenerateOnSaveAction extends ToggleAction {
+
+    @Override
+    public boolean isSelected(AnActionEvent e) {
+        return DocConfigService.getInstance().isGenerateOnSave();
+    }
+
+    @Override
+    public void setSelected(AnActionEvent e, boolean state) {
+        new GeneratorConfig().saveGenerateOnSave(state);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.actions;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.PlatformDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiElementFactory;
+import org.github.bpark.config.DocConfigService;
+import org.github.bpark.config.DocTemplate;
+import org.github.bpark.config.TemplateSnapshot;
+import org.github.bpark.generator.DocCommentPrototypes;
+import org.github.bpark.generator.DocRenderer;
+import org.github.bpark.generator.PropertyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Internal action measuring the parsing of the comments for {@linkplain #ACCESSOR_COUNT} accessors, once with a
+ * parser invocation per comment and once with the {@linkplain DocCommentPrototypes}. The accessors are spread over
+ * classes with recurring property names, like the DTOs of a typical code base, and rendered with the current
+ * templates before the measurement.
+ *
+ * @author Burt Parkers
+ */
+public class ParserReuseBenchmarkAction extends AnAction {
+
+    /** The logger. */
+    private static final Logger LOG = Logger.getInstance("#org.github.bpark.actions.ParserReuseBenchmarkAction");
+
+    /** The notification group. */
+    private static final String NOTIFICATION_GROUP = "gen-javadoc";
+
+    /** Number of documented accessors, half getters and half setters. */
+    private static final int ACCESSOR_COUNT = 10000;
+
+    /** Number of distinct property names. */
+    private static final int PROPERTY_NAME_COUNT = 250;
+
+    /** Number of accessors per class. */
+    private static final int ACCESSORS_PER_CLASS = 40;
+
+    @Override
+    public void actionPerformed(AnActionEvent e) {
+        Project project = e.getData(PlatformDataKeys.PROJECT);
+        if (project != null) {
+            ProgressManager.getInstance().run(new BenchmarkTask(project));
+        }
+    }
+
+    @Override
+    public void update(AnActionEvent e) {
+        e.getPresentation().setEnabled(e.getData(PlatformDataKeys.PROJECT) != null);
+    }
+
+    /**
+     * Background task parsing the comments with and without prototypes.
+     */
+    private static class BenchmarkTask extends Task.Backgroundable {
+
+        /** The result. */
+        private String result;
+
+        /**
+         * Constructor.
+         *
+         * @param project the project.
+         */
+        BenchmarkTask(@NotNull Project project) {
+            super(project, "Benchmark Doc Comment Parsing", true);
+        }
+
+        public void run(@NotNull final ProgressIndicator indicator) {
+            indicator.setText("Rendering " + ACCESSOR_COUNT + " comments...");
+            final List<String> commentTexts = renderComments(DocConfigService.getInstance().getSnapshot());
+
+            result = ApplicationManager.getApplication().runReadAction(new Computable<String>() {
+                public String compute() {
+                    indicator.setText("Parsing every comment...");
+                    PsiElementFactory psiElementFactory = JavaPsiFacade.getInstance(myProject).getElementFactory();
+                    long start = System.nanoTime();
+                    for (String commentText : commentTexts) {
+                        indicator.checkCanceled();
+                        psiElementFactory.createDocCommentFromText(commentText);
+                    }
+                    long parseAllMillis = (System.nanoTime() - start) / 1000000;
+
+                    indicator.setText("Parsing with prototypes...");
+                    DocCommentPrototypes prototypes = new DocCommentPrototypes(myProject);
+                    try {
+                        start = System.nanoTime();
+                        for (String commentText : commentTexts) {
+                            indicator.checkCanceled();
+                            prototypes.create(commentText);
+                        }
+                        long prototypeMillis = (System.nanoTime() - start) / 1000000;
+                        return commentTexts.size() + " comments, without prototypes: " + commentTexts.size()
+                                + " parser invocations in " + parseAllMillis + " ms, with prototypes: "
+                                + prototypes.getParseCount() + " parser invocations and " + prototypes.getReuseCount()
+                                + " copies in " + prototypeMillis + " ms";
+                    } finally {
+                        Disposer.dispose(prototypes);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onSuccess() {
+            LOG.info("Doc comment parsing: " + result);
+            Notifications.Bus.notify(new Notification(NOTIFICATION_GROUP, "Doc comment parsing", result,
+                    NotificationType.INFORMATION), myProject);
+        }
+
+        /**
+         * Renders the comments of the accessors with the current templates.
+         *
+         * @param snapshot the settings.
+         * @return the comment texts, getters and setters alternating.
+         */
+        @NotNull
+        private List<String> renderComments(@NotNull TemplateSnapshot snapshot) {
+            DocRenderer docRenderer = DocRenderer.createIsolated();
+            List<String> commentTexts = new ArrayList<String>(ACCESSOR_COUNT);
+            for (int i = 0; i < ACCESSOR_COUNT; i++) {
+                int classNumber = i / ACCESSORS_PER_CLASS;
+                PropertyDescriptor descriptor = new PropertyDescriptor("property" + (i / 2 % PROPERTY_NAME_COUNT),
+                        i % 8 < 2 ? "boolean" : "java.lang.String", "Dto" + classNumber,
+                        "org.example.Dto" + classNumber, myProject.getName());
+                DocTemplate docTemplate = i % 2 == 0 ? snapshot.getGetterTemplate() : snapshot.getSetterTemplate();
+                commentTexts.add(docRenderer.render(docTemplate.getConfigName(), docTemplate.getTemplate(),
+                        descriptor));
+            }
+            return commentTexts;
+        }
+    }
+}
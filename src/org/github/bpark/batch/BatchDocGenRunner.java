@@ -0,0 +1,315 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.batch;
+
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiManager;
+import org.github.bpark.config.TemplateSnapshot;
+import org.github.bpark.generator.DocEdit;
+import org.github.bpark.generator.JavadocGenerator;
+import org.github.bpark.metrics.PipelineMetrics;
+import org.github.bpark.metrics.RunMetrics;
+import org.github.bpark.metrics.Stage;
+import org.github.bpark.metrics.StageStats;
+import org.github.bpark.util.MethodType;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Documents the java files of source trees without user interface. The read phases of the files run in parallel,
+ * the edits are applied in batches of files in the event dispatch thread, while the following files are still read.
+ * In check mode nothing is written, the files which would change are reported instead.
+ *
+ * @author Burt Parkers
+ */
+public class BatchDocGenRunner {
+
+    /** Number of files applied and saved together. */
+    private static final int WRITE_BATCH_SIZE = 50;
+
+    /** The project. */
+    private final Project project;
+
+    /** The settings. */
+    private final TemplateSnapshot snapshot;
+
+    /** The methods to document. */
+    private final MethodType methodType;
+
+    /** True for reporting the files which would change without writing, false otherwise. */
+    private final boolean check;
+
+    /** Number of threads of the read phase. */
+    private final int threadCount;
+
+    /** The output for the report. */
+    private final PrintStream out;
+
+    /** The generator. */
+    private final JavadocGenerator generator;
+
+    /** Sum of the read phase times of all files in nanoseconds. */
+    private final AtomicLong readNanos = new AtomicLong();
+
+    /** Sum of the write batch times in nanoseconds. */
+    private long writeNanos;
+
+    /** Number of files which would change or changed. */
+    private int changedFileCount;
+
+    /** Number of comments which would be written or were written. */
+    private int editCount;
+
+
+    /**
+     * Constructor.
+     *
+     * @param project the opened project.
+     * @param snapshot the settings.
+     * @param methodType the methods to document.
+     * @param overwrite overwrite flag, true if existing comments should be overwritten, otherwise false.
+     * @param check true for reporting the files which would change without writing, false otherwise.
+     * @param threadCount number of threads of the read phase.
+     * @param out the output for the report.
+     */
+    public BatchDocGenRunner(@NotNull Project project, @NotNull TemplateSnapshot snapshot,
+                             @NotNull MethodType methodType, boolean overwrite, boolean check, int threadCount,
+                             @NotNull PrintStream out) {
+        this.project = project;
+        this.snapshot = snapshot;
+        this.methodType = methodType;
+        this.check = check;
+        this.threadCount = threadCount;
+        this.out = out;
+        RunMetrics metrics = PipelineMetrics.getInstance().startRun("gen-javadoc batch");
+        this.generator = new JavadocGenerator(project, overwrite, snapshot.getFormatMode(), metrics);
+    }
+
+    /**
+     * Documents all java files below the given paths and prints the statistics. Must not be called in the event
+     * dispatch thread.
+     *
+     * @param paths the source files or directories.
+     * @return the exit code, 1 in check mode if a file would change, otherwise 0.
+     * @throws InterruptedException if the thread is interrupted.
+     * @throws ExecutionException if the read phase of a file fails.
+     */
+    public int run(@NotNull List<File> paths) throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        List<VirtualFile> files = collectFiles(paths);
+        DumbService.getInstance(project).waitForSmartMode();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<FileResult>> futures = new ArrayList<Future<FileResult>>(files.size());
+            for (VirtualFile file : files) {
+                futures.add(executor.submit(createReadPhase(file)));
+            }
+            List<FileResult> batch = new ArrayList<FileResult>(WRITE_BATCH_SIZE);
+            for (Future<FileResult> future : futures) {
+                FileResult fileResult = future.get();
+                if (fileResult.docEdits.isEmpty()) {
+                    continue;
+                }
+                changedFileCount++;
+                editCount += fileResult.docEdits.size();
+                if (check) {
+                    out.println(fileResult.psiFile.getVirtualFile().getPresentableUrl() + ": "
+                            + fileResult.docEdits.size() + " comments to generate");
+                    continue;
+                }
+                batch.add(fileResult);
+                if (batch.size() == WRITE_BATCH_SIZE) {
+                    write(batch);
+                }
+            }
+            write(batch);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        printStatistics(files.size(), System.nanoTime() - start);
+        return check && changedFileCount > 0 ? 1 : 0;
+    }
+
+    /**
+     * Collects the java files below the paths.
+     *
+     * @param paths the source files or directories.
+     * @return the files, in the order of the paths.
+     */
+    @NotNull
+    private List<VirtualFile> collectFiles(@NotNull List<File> paths) {
+        List<File> ioFiles = new ArrayList<File>();
+        for (File path : paths) {
+            collectJavaFiles(path, ioFiles);
+        }
+        List<VirtualFile> files = new ArrayList<VirtualFile>(ioFiles.size());
+        LocalFileSystem localFileSystem = LocalFileSystem.getInstance();
+        for (File ioFile : ioFiles) {
+            VirtualFile file = localFileSystem.refreshAndFindFileByIoFile(ioFile);
+            if (file != null) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Creates the read phase of a file, which renders the comments inside a read action.
+     *
+     * @param file the file.
+     * @return the read phase.
+     */
+    @NotNull
+    private Callable<FileResult> createReadPhase(@NotNull final VirtualFile file) {
+        return new Callable<FileResult>() {
+            public FileResult call() {
+                return ApplicationManager.getApplication().runReadAction(new Computable<FileResult>() {
+                    public FileResult compute() {
+                        long readStart = System.nanoTime();
+                        PsiFile psiFile = file.isValid() ? PsiManager.getInstance(project).findFile(file) : null;
+                        List<DocEdit> docEdits = psiFile instanceof PsiJavaFile
+                                ? generator.prepare((PsiJavaFile) psiFile, methodType, snapshot)
+                                : Collections.<DocEdit>emptyList();
+                        readNanos.addAndGet(System.nanoTime() - readStart);
+                        return new FileResult(psiFile, docEdits);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Applies the edits of several files in the event dispatch thread and saves the documents. The batch is cleared.
+     *
+     * @param batch the read phase results.
+     */
+    private void write(@NotNull final List<FileResult> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long writeStart = System.nanoTime();
+        final Application application = ApplicationManager.getApplication();
+        application.invokeAndWait(new Runnable() {
+            public void run() {
+                for (FileResult fileResult : batch) {
+                    if (fileResult.psiFile.isValid()) {
+                        generator.apply(fileResult.psiFile, fileResult.docEdits);
+                    }
+                }
+                FileDocumentManager.getInstance().saveAllDocuments();
+            }
+        }, ModalityState.NON_MODAL);
+        writeNanos += System.nanoTime() - writeStart;
+        batch.clear();
+    }
+
+    /**
+     * Prints the counters, the throughput and the times per stage.
+     *
+     * @param fileCount the number of processed files.
+     * @param wallNanos the total time in nanoseconds.
+     */
+    private void printStatistics(int fileCount, long wallNanos) {
+        double seconds = Math.max(wallNanos, 1) / 1e9;
+        String action = check ? " would change, " : " changed, ";
+        out.println(fileCount + " files processed, " + changedFileCount + action + editCount + " comments, "
+                + generator.getSkippedCount() + " unchanged comments skipped");
+        out.println(String.format("%.2f s total, %.1f files/s, %.1f comments/s, read %d ms (%d threads), write %d ms",
+                seconds, fileCount / seconds, editCount / seconds, TimeUnit.NANOSECONDS.toMillis(readNanos.get()),
+                threadCount, TimeUnit.NANOSECONDS.toMillis(writeNanos)));
+        for (Stage stage : Stage.values()) {
+            StageStats stats = generator.getMetrics().getStageStats(stage);
+            out.println(String.format("  %-15s %8d calls %8d ms", stage.getDisplayName(), stats.getCount(),
+                    TimeUnit.NANOSECONDS.toMillis(stats.getTotalNanos())));
+        }
+    }
+
+    /**
+     * Collects the java files below a path.
+     *
+     * @param path the file or directory.
+     * @param ioFiles the list the files are added to.
+     */
+    private static void collectJavaFiles(@NotNull File path, @NotNull List<File> ioFiles) {
+        File[] children = path.listFiles();
+        if (children == null) {
+            if (path.isFile() && path.getName().endsWith(".java")) {
+                ioFiles.add(path);
+            }
+            return;
+        }
+        for (File child : children) {
+            collectJavaFiles(child, ioFiles);
+        }
+    }
+
+    /**
+     * The result of the read phase of a file.
+     */
+    private static final class FileResult {
+
+        /** The file, null if it could not be found. */
+        private final PsiFile psiFile;
+
+        /** The edits to apply. */
+        private final List<DocEdit> docEdits;
+
+        /**
+         * Constructor.
+         *
+         * @param psiFile the file, null if it could not be found.
+         * @param docEdits the edits to apply.
+         */
+        FileResult(PsiFile psiFile, @NotNull List<DocEdit> docEdits) {
+            this.psiFile = psiFile;
+            this.docEdits = docEdits;
+        }
+    }
+}
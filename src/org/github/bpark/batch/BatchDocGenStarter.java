@@ -0,0 +1,221 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.batch;
+
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Ref;
+import org.github.bpark.config.DocConfigService;
+import org.github.bpark.config.TemplateSnapshot;
+import org.github.bpark.util.MethodType;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Command line entry point for documenting source trees without user interface:
+ * <pre>
+ * idea gen-javadoc [-check] [-overwrite] [-getter|-setter] [-templates &lt;file&gt;] [-threads &lt;n&gt;]
+ *                  &lt;project dir&gt; [&lt;source path&gt;...]
+ * </pre>
+ * The templates are the saved settings, a properties file with the keys gendoc.getter.template,
+ * gendoc.setter.template and gendoc.format.mode replaces them. Without source paths the whole project directory is
+ * documented. The exit code is 1 in check mode if a file would change, 2 for invalid arguments or errors, otherwise
+ * 0.
+ *
+ * @author Burt Parkers
+ */
+public class BatchDocGenStarter implements ApplicationStarter {
+
+    /** The command name. */
+    private static final String COMMAND_NAME = "gen-javadoc";
+
+    /** Exit code for invalid arguments or errors. */
+    private static final int ERROR_EXIT_CODE = 2;
+
+    /** True for reporting the files which would change without writing, false otherwise. */
+    private boolean check;
+
+    /** True for overwriting existing comments, false otherwise. */
+    private boolean overwrite;
+
+    /** The methods to document. */
+    private MethodType methodType = MethodType.SETTER_AND_GETTER;
+
+    /** The template properties file, null for the saved settings. */
+    private File templateFile;
+
+    /** Number of threads of the read phase. */
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+
+    /** The project directory. */
+    private String projectPath;
+
+    /** The source paths. */
+    private final List<File> sourcePaths = new ArrayList<File>();
+
+
+    public String getCommandName() {
+        return COMMAND_NAME;
+    }
+
+    public void premain(String[] args) {
+        try {
+            parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(ERROR_EXIT_CODE);
+        }
+    }
+
+    public void main(String[] args) {
+        ApplicationManager.getApplication().executeOnPooledThread(new Runnable() {
+            public void run() {
+                int exitCode;
+                try {
+                    exitCode = generate();
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                    exitCode = ERROR_EXIT_CODE;
+                }
+                System.exit(exitCode);
+            }
+        });
+    }
+
+    /**
+     * Opens the project and documents the source paths.
+     *
+     * @return the exit code.
+     * @throws Exception if the project cannot be opened or the generation fails.
+     */
+    private int generate() throws Exception {
+        TemplateSnapshot snapshot = DocConfigService.getInstance().getSnapshot();
+        if (templateFile != null) {
+            snapshot = snapshot.withProperties(loadProperties(templateFile));
+        }
+
+        final Ref<Project> projectRef = Ref.create();
+        ApplicationManager.getApplication().invokeAndWait(new Runnable() {
+            public void run() {
+                projectRef.set(ProjectUtil.openOrImport(projectPath, null, false));
+            }
+        }, ModalityState.NON_MODAL);
+        final Project project = projectRef.get();
+        if (project == null) {
+            System.err.println("Cannot open project " + projectPath);
+            return ERROR_EXIT_CODE;
+        }
+
+        try {
+            if (sourcePaths.isEmpty()) {
+                sourcePaths.add(new File(projectPath));
+            }
+            BatchDocGenRunner runner = new BatchDocGenRunner(project, snapshot, methodType, overwrite, check,
+                    threadCount, System.out);
+            return runner.run(sourcePaths);
+        } finally {
+            ApplicationManager.getApplication().invokeAndWait(new Runnable() {
+                public void run() {
+                    ProjectUtil.closeAndDispose(project);
+                }
+            }, ModalityState.NON_MODAL);
+        }
+    }
+
+    /**
+     * Parses the command line, the first argument is the command name.
+     *
+     * @param args the arguments.
+     * @throws IllegalArgumentException if an argument is invalid.
+     */
+    private void parseArguments(@NotNull String[] args) {
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if ("-check".equals(arg)) {
+                check = true;
+            } else if ("-overwrite".equals(arg)) {
+                overwrite = true;
+            } else if ("-getter".equals(arg)) {
+                methodType = MethodType.GETTER;
+            } else if ("-setter".equals(arg)) {
+                methodType = MethodType.SETTER;
+            } else if ("-templates".equals(arg) && i + 1 < args.length) {
+                templateFile = new File(args[++i]);
+            } else if ("-threads".equals(arg) && i + 1 < args.length) {
+                try {
+                    threadCount = Math.max(1, Integer.parseInt(args[++i]));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid thread count: " + args[i]);
+                }
+            } else if (arg.startsWith("-")) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            } else if (projectPath == null) {
+                projectPath = new File(arg).getAbsolutePath();
+            } else {
+                sourcePaths.add(new File(arg).getAbsoluteFile());
+            }
+        }
+        if (projectPath == null) {
+            throw new IllegalArgumentException("Missing project directory");
+        }
+    }
+
+    /**
+     * Loads the template properties.
+     *
+     * @param file the properties file.
+     * @return the properties.
+     * @throws IOException if the file cannot be read.
+     */
+    @NotNull
+    private static Properties loadProperties(@NotNull File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            properties.load(inputStream);
+        } finally {
+            inputStream.close();
+        }
+        return properties;
+    }
+
+    /** Prints the command line syntax. */
+    private static void printUsage() {
+        System.err.println("Usage: " + COMMAND_NAME + " [-check] [-overwrite] [-getter|-setter]"
+                + " [-templates <file>] [-threads <n>] <project dir> [<source path>...]");
+    }
+}
@@ -25,6 +25,8 @@
 
 package org.github.bpark.config;
 
+import org.github.bpark.generator.RenderedTextCache;
+import org.github.bpark.generator.TemplateCache;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -73,4 +75,15 @@ public abstract class AbstractDocConfig {
      */
     public abstract void setTemplate(@NotNull String template);
 
+    /** Must be called by subclasses after the template was changed, drops the parsed template and rendered texts. */
+    protected void templateChanged() {
+        TemplateCache.getInstance().invalidate(getConfigName());
+        RenderedTextCache.getInstance().invalidate(getConfigName());
+    }
+
+    /** Must be called by subclasses after the template was saved, publishes the template to the settings service. */
+    protected void templateSaved() {
+        DocConfigService.getInstance().templateSaved(DocTemplate.of(this));
+    }
+
 }
@@ -0,0 +1,153 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.config;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.util.ModificationTracker;
+import org.github.bpark.generator.FormatMode;
+import org.github.bpark.generator.RenderedTextCache;
+import org.github.bpark.generator.TemplateCache;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Application service holding the current settings as immutable {@linkplain TemplateSnapshot}. The settings are
+ * loaded once, afterwards the snapshot is replaced only when a configuration is saved. Every change is published with
+ * {@linkplain DocConfigListener#TOPIC}. The modification count is increased with every new snapshot, so cached values
+ * can depend on the settings.
+ *
+ * @author Burt Parkers
+ */
+public class DocConfigService implements ModificationTracker {
+
+    /** The current settings. */
+    private volatile TemplateSnapshot snapshot;
+
+    /** The number of snapshot changes. */
+    private volatile long modificationCount;
+
+    /** True if new accessors are documented when their file is saved. */
+    private volatile boolean generateOnSave;
+
+
+    /** Constructor, loads the settings and connects the template cache and the rendered text cache. */
+    public DocConfigService() {
+        GeneratorConfig generatorConfig = new GeneratorConfig();
+        snapshot = new TemplateSnapshot(DocTemplate.of(new GetterDocConfig()), DocTemplate.of(new SetterDocConfig()),
+                generatorConfig.getFormatMode());
+        generateOnSave = generatorConfig.isGenerateOnSave();
+        RenderedTextCache.getInstance().setCapacity(generatorConfig.getRenderCacheCapacity() * 1024L);
+        ApplicationManager.getApplication().getMessageBus().connect().subscribe(DocConfigListener.TOPIC,
+                new DocConfigListener() {
+                    public void settingsChanged(@NotNull TemplateSnapshot newSnapshot) {
+                        TemplateCache.getInstance().clear();
+                        RenderedTextCache.getInstance().clear();
+                    }
+                });
+    }
+
+    /**
+     * Returns the service instance.
+     *
+     * @return the service.
+     */
+    @NotNull
+    public static DocConfigService getInstance() {
+        return ServiceManager.getService(DocConfigService.class);
+    }
+
+    /**
+     * Returns the current settings.
+     *
+     * @return the settings.
+     */
+    @NotNull
+    public TemplateSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Returns the on save generation flag, without loading the settings.
+     *
+     * @return true if new accessors are documented when their file is saved, otherwise false.
+     */
+    public boolean isGenerateOnSave() {
+        return generateOnSave;
+    }
+
+    /**
+     * Publishes a saved on save generation flag.
+     *
+     * @param generateOnSave the saved flag.
+     */
+    void generateOnSaveSaved(boolean generateOnSave) {
+        this.generateOnSave = generateOnSave;
+    }
+
+    /**
+     * Publishes a saved template.
+     *
+     * @param docTemplate the saved template.
+     */
+    void templateSaved(@NotNull DocTemplate docTemplate) {
+        TemplateSnapshot newSnapshot;
+        synchronized (this) {
+            newSnapshot = snapshot.withTemplate(docTemplate);
+            snapshot = newSnapshot;
+            modificationCount++;
+        }
+        publish(newSnapshot);
+    }
+
+    /**
+     * Publishes a saved format mode.
+     *
+     * @param formatMode the saved format mode.
+     */
+    void formatModeSaved(@NotNull FormatMode formatMode) {
+        TemplateSnapshot newSnapshot;
+        synchronized (this) {
+            newSnapshot = snapshot.withFormatMode(formatMode);
+            snapshot = newSnapshot;
+            modificationCount++;
+        }
+        publish(newSnapshot);
+    }
+
+    /**
+     * Publishes new settings.
+     *
+     * @param newSnapshot the new settings.
+     */
+    private static void publish(@NotNull TemplateSnapshot newSnapshot) {
+        ApplicationManager.getApplication().getMessageBus().syncPublisher(DocConfigListener.TOPIC)
+                .settingsChanged(newSnapshot);
+    }
+}
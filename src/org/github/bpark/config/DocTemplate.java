@@ -0,0 +1,102 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.config;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Immutable template of a configuration.
+ *
+ * @author Burt Parkers
+ */
+public final class DocTemplate {
+
+    /** The configuration name. */
+    private final String configName;
+
+    /** The template content. */
+    private final String template;
+
+
+    /**
+     * Constructor.
+     *
+     * @param configName the configuration name.
+     * @param template the template content.
+     */
+    public DocTemplate(@NotNull String configName, @NotNull String template) {
+        this.configName = configName;
+        this.template = template;
+    }
+
+    /**
+     * Creates the template of a configuration.
+     *
+     * @param abstractDocConfig the configuration.
+     * @return the current template of the configuration.
+     */
+    @NotNull
+    public static DocTemplate of(@NotNull AbstractDocConfig abstractDocConfig) {
+        return new DocTemplate(abstractDocConfig.getConfigName(), abstractDocConfig.getTemplate());
+    }
+
+    /**
+     * Returns the configuration name.
+     *
+     * @return the configuration name.
+     */
+    @NotNull
+    public String getConfigName() {
+        return configName;
+    }
+
+    /**
+     * Returns the template content.
+     *
+     * @return the template content.
+     */
+    @NotNull
+    public String getTemplate() {
+        return template;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DocTemplate)) {
+            return false;
+        }
+        DocTemplate that = (DocTemplate) o;
+        return configName.equals(that.configName) && template.equals(that.template);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * configName.hashCode() + template.hashCode();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.config;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.ide.util.PropertyName;
+import org.github.bpark.generator.FormatMode;
+import org.github.bpark.generator.RenderedTextCache;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Configuration class for the generator settings, which are independent from the templates.
+ *
+ * @author Burt Parkers
+ */
+public class GeneratorConfig {
+
+    /** The format mode value and configuration location. */
+    @PropertyName(value = "gendoc.format.mode")
+    private String formatMode;
+
+    /** The capacity of the rendered text cache in kilobytes and configuration location. */
+    @PropertyName(value = "gendoc.render.cache.capacity")
+    private String renderCacheCapacity;
+
+    /** The on save generation flag and configuration location. */
+    @PropertyName(value = "gendoc.onsave.enabled")
+    private String generateOnSave;
+
+    /** The overwrite flag of the bulk generation and configuration location. */
+    @PropertyName(value = "gendoc.bulk.overwrite")
+    private String bulkOverwrite;
+
+
+    /** Constructor, loads the saved settings or uses the default values. */
+    public GeneratorConfig() {
+        try {
+            PropertiesComponent.getInstance().loadFields(this);
+        } catch (IllegalAccessException e) {
+            formatMode = null;
+            renderCacheCapacity = null;
+            generateOnSave = null;
+            bulkOverwrite = null;
+        }
+    }
+
+    /**
+     * Returns the format mode.
+     *
+     * @return the format mode, {@linkplain FormatMode#COMMENT} if nothing is configured.
+     */
+    @NotNull
+    public FormatMode getFormatMode() {
+        return FormatMode.fromValue(formatMode);
+    }
+
+    /**
+     * Returns the capacity of the rendered text cache.
+     *
+     * @return the capacity in kilobytes, {@linkplain RenderedTextCache#DEFAULT_CAPACITY_KB} if nothing or an invalid
+     *         value is configured.
+     */
+    public int getRenderCacheCapacity() {
+        if (renderCacheCapacity != null) {
+            try {
+                return Math.max(0, Integer.parseInt(renderCacheCapacity.trim()));
+            } catch (NumberFormatException e) {
+                return RenderedTextCache.DEFAULT_CAPACITY_KB;
+            }
+        }
+        return RenderedTextCache.DEFAULT_CAPACITY_KB;
+    }
+
+    /**
+     * Returns the on save generation flag.
+     *
+     * @return true if new accessors are documented when their file is saved, false if nothing is configured.
+     */
+    public boolean isGenerateOnSave() {
+        return Boolean.parseBoolean(generateOnSave);
+    }
+
+    /**
+     * Saves the on save generation flag.
+     *
+     * @param generateOnSave true if new accessors are documented when their file is saved, otherwise false.
+     */
+    public void saveGenerateOnSave(boolean generateOnSave) {
+        try {
+            this.generateOnSave = Boolean.toString(generateOnSave);
+            PropertiesComponent.getInstance().saveFields(this);
+            DocConfigService.getInstance().generateOnSaveSaved(generateOnSave);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the overwrite flag of the bulk generation, the last choice in the scope dialog.
+     *
+     * @return true if existing comments are overwritten, false if nothing is configured.
+     */
+    public boolean isBulkOverwrite() {
+        return Boolean.parseBoolean(bulkOverwrite);
+    }
+
+    /**
+     * Saves the overwrite flag of the bulk generation.
+     *
+     * @param bulkOverwrite true if existing comments are overwritten, otherwise false.
+     */
+    public void saveBulkOverwrite(boolean bulkOverwrite) {
+        try {
+            this.bulkOverwrite = Boolean.toString(bulkOverwrite);
+            PropertiesComponent.getInstance().saveFields(this);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Saves the format mode.
+     *
+     * @param formatMode the format mode.
+     */
+    public void saveFormatMode(@NotNull FormatMode formatMode) {
+        try {
+            this.formatMode = formatMode.name();
+            PropertiesComponent.getInstance().saveFields(this);
+            DocConfigService.getInstance().formatModeSaved(formatMode);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
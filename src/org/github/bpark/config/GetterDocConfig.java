@@ -79,6 +79,7 @@ public class GetterDocConfig extends AbstractDocConfig {
             //Project project = DataKeys.PROJECT.getData(dataContextFromFocus.getResult());
             //PropertiesComponent.getInstance(project).saveFields(this);
             PropertiesComponent.getInstance().saveFields(this);
+            templateSaved();
         } catch (IllegalAccessException e) {
             throw new RuntimeException(e);
         }
@@ -93,6 +94,7 @@ public class GetterDocConfig extends AbstractDocConfig {
     @Override
     public void setTemplate(@NotNull String template) {
         this.template = template;
+        templateChanged();
     }
 
 
@@ -78,6 +78,7 @@ public class SetterDocConfig extends AbstractDocConfig {
         try {
             this.template = template;
             PropertiesComponent.getInstance().saveFields(this);
+            templateSaved();
         } catch (IllegalAccessException e) {
             throw new RuntimeException(e);
         }
@@ -92,5 +93,6 @@ public class SetterDocConfig extends AbstractDocConfig {
     @Override
     public void setTemplate(@NotNull String template) {
         this.template = template;
+        templateChanged();
     }
 }
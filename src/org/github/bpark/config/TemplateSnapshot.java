@@ -0,0 +1,168 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.config;
+
+import org.github.bpark.generator.FormatMode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Properties;
+
+/**
+ * Immutable snapshot of all settings, published by {@linkplain DocConfigService}.
+ *
+ * @author Burt Parkers
+ */
+public final class TemplateSnapshot {
+
+    /** The getter template key, the same as the configuration location of {@linkplain GetterDocConfig}. */
+    private static final String GETTER_TEMPLATE_KEY = "gendoc.getter.template";
+
+    /** The setter template key, the same as the configuration location of {@linkplain SetterDocConfig}. */
+    private static final String SETTER_TEMPLATE_KEY = "gendoc.setter.template";
+
+    /** The format mode key, the same as the configuration location of {@linkplain GeneratorConfig}. */
+    private static final String FORMAT_MODE_KEY = "gendoc.format.mode";
+
+    /** The getter template. */
+    private final DocTemplate getterTemplate;
+
+    /** The setter template. */
+    private final DocTemplate setterTemplate;
+
+    /** The format mode. */
+    private final FormatMode formatMode;
+
+
+    /**
+     * Constructor.
+     *
+     * @param getterTemplate the getter template.
+     * @param setterTemplate the setter template.
+     * @param formatMode the format mode.
+     */
+    public TemplateSnapshot(@NotNull DocTemplate getterTemplate, @NotNull DocTemplate setterTemplate,
+                            @NotNull FormatMode formatMode) {
+        this.getterTemplate = getterTemplate;
+        this.setterTemplate = setterTemplate;
+        this.formatMode = formatMode;
+    }
+
+    /**
+     * Returns the getter template.
+     *
+     * @return the getter template.
+     */
+    @NotNull
+    public DocTemplate getGetterTemplate() {
+        return getterTemplate;
+    }
+
+    /**
+     * Returns the setter template.
+     *
+     * @return the setter template.
+     */
+    @NotNull
+    public DocTemplate getSetterTemplate() {
+        return setterTemplate;
+    }
+
+    /**
+     * Returns the template of a configuration.
+     *
+     * @param configName the configuration name.
+     * @return the template, or null for an unknown configuration.
+     */
+    @Nullable
+    public DocTemplate getTemplate(@NotNull String configName) {
+        if (getterTemplate.getConfigName().equals(configName)) {
+            return getterTemplate;
+        }
+        if (setterTemplate.getConfigName().equals(configName)) {
+            return setterTemplate;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the format mode.
+     *
+     * @return the format mode.
+     */
+    @NotNull
+    public FormatMode getFormatMode() {
+        return formatMode;
+    }
+
+    /**
+     * Creates a copy with a changed template.
+     *
+     * @param docTemplate the new template, replaces the template with the same configuration name.
+     * @return the new snapshot.
+     */
+    @NotNull
+    TemplateSnapshot withTemplate(@NotNull DocTemplate docTemplate) {
+        if (getterTemplate.getConfigName().equals(docTemplate.getConfigName())) {
+            return new TemplateSnapshot(docTemplate, setterTemplate, formatMode);
+        }
+        if (setterTemplate.getConfigName().equals(docTemplate.getConfigName())) {
+            return new TemplateSnapshot(getterTemplate, docTemplate, formatMode);
+        }
+        return this;
+    }
+
+    /**
+     * Creates a copy with the settings of a properties file. The keys are the same as the configuration locations,
+     * settings without a key are kept.
+     *
+     * @param properties the properties.
+     * @return the new snapshot.
+     */
+    @NotNull
+    public TemplateSnapshot withProperties(@NotNull Properties properties) {
+        String getterTemplate = properties.getProperty(GETTER_TEMPLATE_KEY);
+        String setterTemplate = properties.getProperty(SETTER_TEMPLATE_KEY);
+        String formatMode = properties.getProperty(FORMAT_MODE_KEY);
+        return new TemplateSnapshot(
+                getterTemplate != null
+                        ? new DocTemplate(this.getterTemplate.getConfigName(), getterTemplate) : this.getterTemplate,
+                setterTemplate != null
+                        ? new DocTemplate(this.setterTemplate.getConfigName(), setterTemplate) : this.setterTemplate,
+                formatMode != null ? FormatMode.fromValue(formatMode) : this.formatMode);
+    }
+
+    /**
+     * Creates a copy with a changed format mode.
+     *
+     * @param newFormatMode the new format mode.
+     * @return the new snapshot.
+     */
+    @NotNull
+    TemplateSnapshot withFormatMode(@NotNull FormatMode newFormatMode) {
+        return new TemplateSnapshot(getterTemplate, setterTemplate, newFormatMode);
+    }
+}
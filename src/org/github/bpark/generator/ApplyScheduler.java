@@ -0,0 +1,180 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies the prepared edits of one file in slices, so a large run does not freeze the event dispatch thread. Each
+ * slice is a write command which inserts edits until the {@linkplain #FRAME_BUDGET_NANOS} is used up, formats them
+ * and commits the document. Between two slices the write lock is released and the event queue is processed, so typing
+ * and repainting go on.
+ * <p/>
+ * All slices belong to the same undo group, so the inserted comments are undone together, also if the run was
+ * cancelled: the indicator is checked before every slice, a cancelled run ends with a formatted and committed file
+ * containing the slices applied so far. Methods removed or documented by the user in the meantime are skipped, see
+ * {@linkplain JavadocGenerator#applySlice(PsiFile, List, int, long, String)}. If a slice fails, the error is logged
+ * and no further slice is scheduled, the finish callback is called in any case.
+ *
+ * @author Burt Parkers
+ */
+public class ApplyScheduler {
+
+    /** The logger. */
+    private static final Logger LOG = Logger.getInstance("#" + ApplyScheduler.class.getName());
+
+    /** The time budget of one slice, one frame at 60 frames per second. */
+    public static final long FRAME_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+
+    /** Minimum number of edits applied in slices, smaller lists are applied with one write command. */
+    public static final int SLICE_THRESHOLD = 100;
+
+    /** Counter for unique undo groups. */
+    private static final AtomicInteger GROUP_COUNTER = new AtomicInteger();
+
+    /** The project. */
+    private final Project project;
+
+    /** The generator. */
+    private final JavadocGenerator generator;
+
+    /** The file containing the methods. */
+    private final PsiFile psiFile;
+
+    /** The edits to apply. */
+    private final List<DocEdit> docEdits;
+
+    /** The indicator for progress and cancellation. */
+    private final ProgressIndicator indicator;
+
+    /** True if the fraction of the indicator is set to the applied edits, otherwise false. */
+    private final boolean reportFraction;
+
+    /** The undo group of all slices. */
+    private final String groupId = "gen-javadoc apply " + GROUP_COUNTER.incrementAndGet();
+
+
+    /**
+     * Constructor, the fraction of the indicator shows the applied edits.
+     *
+     * @param project the project.
+     * @param generator the generator inserting the edits.
+     * @param psiFile the file containing the methods.
+     * @param docEdits the edits to apply.
+     * @param indicator the indicator for progress and cancellation.
+     */
+    public ApplyScheduler(@NotNull Project project, @NotNull JavadocGenerator generator, @NotNull PsiFile psiFile,
+                          @NotNull List<DocEdit> docEdits, @NotNull ProgressIndicator indicator) {
+        this(project, generator, psiFile, docEdits, indicator, true);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param project the project.
+     * @param generator the generator inserting the edits.
+     * @param psiFile the file containing the methods.
+     * @param docEdits the edits to apply.
+     * @param indicator the indicator for progress and cancellation.
+     * @param reportFraction true if the fraction of the indicator is set to the applied edits, false if the indicator
+     *                       is shared with a task reporting its own progress.
+     */
+    public ApplyScheduler(@NotNull Project project, @NotNull JavadocGenerator generator, @NotNull PsiFile psiFile,
+                          @NotNull List<DocEdit> docEdits, @NotNull ProgressIndicator indicator,
+                          boolean reportFraction) {
+        this.project = project;
+        this.generator = generator;
+        this.psiFile = psiFile;
+        this.docEdits = docEdits;
+        this.indicator = indicator;
+        this.reportFraction = reportFraction;
+    }
+
+    /**
+     * Schedules the first slice in the event dispatch thread and returns immediately.
+     *
+     * @param onFinish called in the event dispatch thread after the last slice, after a cancellation, after a failed
+     *                 slice or if the file became invalid, may be null.
+     */
+    public void start(@Nullable final Runnable onFinish) {
+        schedule(0, onFinish);
+    }
+
+    /**
+     * Schedules a slice at the end of the event queue.
+     *
+     * @param fromIndex the index of the first edit of the slice.
+     * @param onFinish called after the last slice, may be null.
+     */
+    private void schedule(final int fromIndex, @Nullable final Runnable onFinish) {
+        ApplicationManager.getApplication().invokeLater(new Runnable() {
+            public void run() {
+                applyNext(fromIndex, onFinish);
+            }
+        }, ModalityState.NON_MODAL);
+    }
+
+    /**
+     * Applies one slice and schedules the next one. The finish callback is called if no further slice is scheduled,
+     * also if the slice failed.
+     *
+     * @param fromIndex the index of the first edit of the slice.
+     * @param onFinish called after the last slice, may be null.
+     */
+    private void applyNext(int fromIndex, @Nullable Runnable onFinish) {
+        boolean scheduled = false;
+        try {
+            if (!project.isDisposed() && psiFile.isValid() && !indicator.isCanceled()) {
+                int nextIndex = generator.applySlice(psiFile, docEdits, fromIndex,
+                        System.nanoTime() + FRAME_BUDGET_NANOS, groupId);
+                if (reportFraction) {
+                    indicator.setFraction((double) nextIndex / docEdits.size());
+                }
+                if (nextIndex < docEdits.size()) {
+                    schedule(nextIndex, onFinish);
+                    scheduled = true;
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Inserting JavaDoc into " + psiFile.getName() + " failed, remaining edits are dropped", e);
+        } finally {
+            if (!scheduled && onFinish != null) {
+                onFinish.run();
+            }
+        }
+    }
+}
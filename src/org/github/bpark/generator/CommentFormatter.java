@@ -0,0 +1,164 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.psi.javadoc.PsiDocComment;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.IncorrectOperationException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formats inserted comments depending on the {@linkplain FormatMode}.
+ *
+ * @author Burt Parkers
+ */
+public class CommentFormatter {
+
+    /** The project. */
+    private final Project project;
+
+    /** The format mode. */
+    private final FormatMode formatMode;
+
+
+    /**
+     * Constructor.
+     *
+     * @param project the project.
+     * @param formatMode the format mode.
+     */
+    public CommentFormatter(@NotNull Project project, @NotNull FormatMode formatMode) {
+        this.project = project;
+        this.formatMode = formatMode;
+    }
+
+    /**
+     * Prepares the rendered comment text before it is parsed. Only in {@linkplain FormatMode#PRE_INDENT} mode the
+     * text is changed, every line after the first is indented like the method.
+     *
+     * @param commentText the rendered comment.
+     * @param psiMethod the method to document.
+     * @return the prepared comment text.
+     */
+    @NotNull
+    public String prepare(@NotNull String commentText, @NotNull PsiMethod psiMethod) {
+        return prepare(commentText, getIndent(psiMethod));
+    }
+
+    /**
+     * Prepares the rendered comment text before it is parsed, like {@linkplain #prepare(String, PsiMethod)} with an
+     * indentation extracted before. Needs no PSI access.
+     *
+     * @param commentText the rendered comment.
+     * @param indent the indentation of the method.
+     * @return the prepared comment text.
+     */
+    @NotNull
+    public String prepare(@NotNull String commentText, @NotNull String indent) {
+        if (formatMode != FormatMode.PRE_INDENT) {
+            return commentText;
+        }
+        String[] lines = commentText.trim().split("\r?\n");
+        StringBuilder builder = new StringBuilder(commentText.length() + lines.length * (indent.length() + 1));
+        builder.append(lines[0].trim());
+        for (int i = 1; i < lines.length; i++) {
+            String line = lines[i].trim();
+            builder.append('\n').append(indent);
+            if (line.startsWith("*")) {
+                builder.append(' ');
+            }
+            builder.append(line);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Formats the inserted comments of one file. Must be called inside a write action, after all comments of the
+     * file are inserted. In {@linkplain FormatMode#COMMENT} mode all comments are formatted with one formatter pass
+     * over the file, the ranges include the surrounding whitespace, so the comments are also indented.
+     *
+     * @param psiFile the file.
+     * @param docComments the inserted comments.
+     * @throws IncorrectOperationException if the formatter fails.
+     */
+    public void format(@NotNull PsiFile psiFile, @NotNull List<PsiDocComment> docComments)
+            throws IncorrectOperationException {
+        if (docComments.isEmpty() || formatMode == FormatMode.PRE_INDENT) {
+            return;
+        }
+        CodeStyleManager codeStyleManager = CodeStyleManager.getInstance(project);
+        if (formatMode == FormatMode.METHOD) {
+            for (PsiDocComment docComment : docComments) {
+                PsiElement owner = docComment.getParent();
+                codeStyleManager.reformat(owner != null ? owner : docComment);
+            }
+            return;
+        }
+
+        List<TextRange> ranges = new ArrayList<TextRange>(docComments.size());
+        for (PsiDocComment docComment : docComments) {
+            int startOffset = docComment.getTextRange().getStartOffset();
+            int endOffset = docComment.getTextRange().getEndOffset();
+            PsiElement prevLeaf = PsiTreeUtil.prevLeaf(docComment);
+            if (prevLeaf instanceof PsiWhiteSpace) {
+                startOffset = prevLeaf.getTextRange().getStartOffset();
+            }
+            PsiElement nextSibling = docComment.getNextSibling();
+            if (nextSibling instanceof PsiWhiteSpace) {
+                endOffset = nextSibling.getTextRange().getEndOffset();
+            }
+            ranges.add(new TextRange(startOffset, endOffset));
+        }
+        codeStyleManager.reformatText(psiFile, ranges);
+    }
+
+    /**
+     * Returns the indentation of a method, the whitespace between the last line break and the method.
+     *
+     * @param psiMethod the method.
+     * @return the indentation, empty if unknown.
+     */
+    @NotNull
+    static String getIndent(@NotNull PsiMethod psiMethod) {
+        PsiElement prevSibling = psiMethod.getPrevSibling();
+        if (prevSibling instanceof PsiWhiteSpace) {
+            String whiteSpace = prevSibling.getText();
+            int lineBreak = whiteSpace.lastIndexOf('\n');
+            return lineBreak >= 0 ? whiteSpace.substring(lineBreak + 1) : "";
+        }
+        return "";
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Util class for comparing comment texts.
+ *
+ * @author Burt Parkers
+ */
+public final class CommentTextUtil {
+
+    /** Prevents util class instantiation. */
+    private CommentTextUtil() {
+    }
+
+    /**
+     * Normalizes a comment, the indentation and trailing whitespace of every line is removed and the lines are
+     * separated by a single line feed. Two comments which differ only in formatting have the same normalized text.
+     *
+     * @param commentText the comment.
+     * @return the normalized comment.
+     */
+    @NotNull
+    public static String normalize(@NotNull CharSequence commentText) {
+        StringBuilder builder = new StringBuilder(commentText.length());
+        int length = commentText.length();
+        int lineStart = 0;
+        while (lineStart <= length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && commentText.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int start = lineStart;
+            int end = lineEnd;
+            while (start < end && Character.isWhitespace(commentText.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(commentText.charAt(end - 1))) {
+                end--;
+            }
+            if (start < end) {
+                if (builder.length() > 0) {
+                    builder.append('\n');
+                }
+                builder.append(commentText, start, end);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Checks if two comments differ only in formatting.
+     *
+     * @param commentText the first comment.
+     * @param otherCommentText the second comment.
+     * @return true if the normalized comments are equal, otherwise false.
+     */
+    public static boolean isSame(@NotNull CharSequence commentText, @NotNull CharSequence otherCommentText) {
+        return normalize(commentText).equals(normalize(otherCommentText));
+    }
+}
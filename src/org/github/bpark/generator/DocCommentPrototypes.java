@@ -0,0 +1,166 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.javadoc.PsiDocComment;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Project service caching parsed doc comments by their text. A comment text is parsed once, every insertion gets a
+ * copy of the parsed prototype, so identical comments, e.g. of properties with the same name in different classes,
+ * do not run the parser again. The prototypes are softly referenced and bounded by
+ * {@linkplain #MAX_PROTOTYPES}, the cache is cleared when the project is closed.
+ *
+ * @author Burt Parkers
+ */
+public class DocCommentPrototypes implements Disposable {
+
+    /** Maximum number of cached prototypes, the least recently used prototypes are dropped first. */
+    static final int MAX_PROTOTYPES = 1024;
+
+    /** The project. */
+    private final Project project;
+
+    /** The prototypes, the key is the comment text, guarded by this. */
+    private final Map<String, SoftReference<PsiDocComment>> prototypes =
+            new LinkedHashMap<String, SoftReference<PsiDocComment>>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SoftReference<PsiDocComment>> eldest) {
+                    return size() > MAX_PROTOTYPES;
+                }
+            };
+
+    /** Number of parser invocations. */
+    private final AtomicLong parseCount = new AtomicLong();
+
+    /** Number of comments copied from a prototype. */
+    private final AtomicLong reuseCount = new AtomicLong();
+
+
+    /**
+     * Constructor.
+     *
+     * @param project the project.
+     */
+    public DocCommentPrototypes(@NotNull Project project) {
+        this.project = project;
+        Disposer.register(project, this);
+    }
+
+    /**
+     * Returns the service instance of a project.
+     *
+     * @param project the project.
+     * @return the service.
+     */
+    @NotNull
+    public static DocCommentPrototypes getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, DocCommentPrototypes.class);
+    }
+
+    /**
+     * Creates a doc comment from a text, a copy of the cached prototype if the text was parsed before. Must be called
+     * inside a read action.
+     *
+     * @param text the comment text.
+     * @return a new, non physical comment.
+     */
+    @NotNull
+    public PsiDocComment create(@NotNull String text) {
+        PsiDocComment prototype = getPrototype(text);
+        if (prototype != null) {
+            reuseCount.incrementAndGet();
+            return (PsiDocComment) prototype.copy();
+        }
+        parseCount.incrementAndGet();
+        prototype = JavaPsiFacade.getInstance(project).getElementFactory().createDocCommentFromText(text);
+        synchronized (prototypes) {
+            prototypes.put(text, new SoftReference<PsiDocComment>(prototype));
+        }
+        return (PsiDocComment) prototype.copy();
+    }
+
+    /**
+     * Returns the number of parser invocations since the project was opened or the last clear.
+     *
+     * @return the parse count.
+     */
+    public long getParseCount() {
+        return parseCount.get();
+    }
+
+    /**
+     * Returns the number of comments copied from a prototype since the project was opened or the last clear.
+     *
+     * @return the reuse count.
+     */
+    public long getReuseCount() {
+        return reuseCount.get();
+    }
+
+    /** Removes all prototypes and resets the counters. */
+    public void clear() {
+        synchronized (prototypes) {
+            prototypes.clear();
+        }
+        parseCount.set(0);
+        reuseCount.set(0);
+    }
+
+    public void dispose() {
+        clear();
+    }
+
+    /**
+     * Returns the cached prototype of a text, a collected or invalid prototype is removed.
+     *
+     * @param text the comment text.
+     * @return the prototype or null if the text has to be parsed.
+     */
+    private PsiDocComment getPrototype(@NotNull String text) {
+        synchronized (prototypes) {
+            SoftReference<PsiDocComment> reference = prototypes.get(text);
+            PsiDocComment prototype = reference != null ? reference.get() : null;
+            if (prototype != null && prototype.isValid()) {
+                return prototype;
+            }
+            if (reference != null) {
+                prototypes.remove(text);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.SmartPsiElementPointer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable record of a rendered comment, created by {@linkplain JavadocGenerator#prepare} and inserted by
+ * {@linkplain JavadocGenerator#apply}. The method is referenced by a smart pointer, so the record survives PSI
+ * changes between both phases.
+ *
+ * @author Burt Parkers
+ */
+public final class DocEdit {
+
+    /** Pointer to the method to document. */
+    private final SmartPsiElementPointer<PsiMethod> methodPointer;
+
+    /** The range of the replaced comment, or an empty range at the method start. */
+    private final TextRange range;
+
+    /** The rendered comment. */
+    private final String text;
+
+
+    /**
+     * Constructor.
+     *
+     * @param methodPointer pointer to the method to document.
+     * @param range the range of the replaced comment, or an empty range at the method start.
+     * @param text the rendered comment.
+     */
+    DocEdit(@NotNull SmartPsiElementPointer<PsiMethod> methodPointer, @NotNull TextRange range, @NotNull String text) {
+        this.methodPointer = methodPointer;
+        this.range = range;
+        this.text = text;
+    }
+
+    /**
+     * Returns the method to document.
+     *
+     * @return the method, or null if the method does not exist anymore.
+     */
+    @Nullable
+    public PsiMethod getMethod() {
+        return methodPointer.getElement();
+    }
+
+    /**
+     * Returns the range of the replaced comment, or an empty range at the method start if the method has no comment.
+     * The range describes the state of the preparation.
+     *
+     * @return the range.
+     */
+    @NotNull
+    public TextRange getRange() {
+        return range;
+    }
+
+    /**
+     * Returns the rendered comment.
+     *
+     * @return the comment text.
+     */
+    @NotNull
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import org.apache.velocity.app.VelocityEngine;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders templates for {@linkplain PropertyDescriptor}s. The renderer depends only on velocity, not on the PSI or
+ * the IDE, so it can be used and measured outside of the IDE. Rendered texts are kept in a
+ * {@linkplain RenderedTextCache}, repeated renderings of the same property are not evaluated again.
+ *
+ * @author Burt Parkers
+ */
+public final class DocRenderer {
+
+    /** The renderer of the plugin, backed by the shared caches. */
+    private static final DocRenderer SHARED = new DocRenderer(TemplateCache.getInstance(),
+            RenderedTextCache.getInstance());
+
+    /** The template cache. */
+    private final TemplateCache templateCache;
+
+    /** The cache of rendered texts. */
+    private final RenderedTextCache renderedTextCache;
+
+
+    /**
+     * Constructor.
+     *
+     * @param templateCache the template cache.
+     * @param renderedTextCache the cache of rendered texts.
+     */
+    private DocRenderer(@NotNull TemplateCache templateCache, @NotNull RenderedTextCache renderedTextCache) {
+        this.templateCache = templateCache;
+        this.renderedTextCache = renderedTextCache;
+    }
+
+    /**
+     * Returns the renderer of the plugin, which uses the shared caches and velocity runtime.
+     *
+     * @return the shared renderer.
+     */
+    @NotNull
+    public static DocRenderer getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Creates a renderer with a new velocity runtime and empty caches, nothing is shared with other renderers.
+     *
+     * @param textCacheCapacity the capacity of the rendered text cache in bytes, 0 renders every text.
+     * @return the new renderer.
+     */
+    @NotNull
+    public static DocRenderer createIsolated(long textCacheCapacity) {
+        return new DocRenderer(new TemplateCache(VelocityEngineFactory.createRuntimeServices()),
+                new RenderedTextCache(textCacheCapacity));
+    }
+
+    /**
+     * Creates a renderer with a new velocity runtime and without a rendered text cache, every call renders the
+     * template.
+     *
+     * @return the new renderer.
+     */
+    @NotNull
+    public static DocRenderer createIsolated() {
+        return createIsolated(0);
+    }
+
+    /**
+     * Returns the cache of rendered texts of this renderer.
+     *
+     * @return the cache.
+     */
+    @NotNull
+    public RenderedTextCache getRenderedTextCache() {
+        return renderedTextCache;
+    }
+
+    /**
+     * Renders a template, the parsed template is cached by the configuration name, the rendered text by the
+     * configuration, the template and the property.
+     *
+     * @param configName the configuration name.
+     * @param template the template.
+     * @param descriptor the documented property.
+     * @return the rendered text.
+     */
+    @NotNull
+    public String render(@NotNull String configName, @NotNull String template,
+                         @NotNull PropertyDescriptor descriptor) {
+        String text = renderedTextCache.get(configName, template, descriptor);
+        if (text == null) {
+            text = templateCache.render(configName, template, descriptor.toVariables());
+            renderedTextCache.put(configName, template, descriptor, text);
+        }
+        return text;
+    }
+
+    /**
+     * Renders a template for several properties.
+     *
+     * @param configName the configuration name.
+     * @param template the template.
+     * @param descriptors the documented properties.
+     * @return the rendered texts, in the order of the descriptors.
+     */
+    @NotNull
+    public List<String> renderAll(@NotNull String configName, @NotNull String template,
+                                  @NotNull List<PropertyDescriptor> descriptors) {
+        List<String> results = new ArrayList<String>(descriptors.size());
+        for (PropertyDescriptor descriptor : descriptors) {
+            results.add(render(configName, template, descriptor));
+        }
+        return results;
+    }
+
+    /**
+     * Renders a template for the {@linkplain PropertyDescriptor#SAMPLE} without caching it, used to check edited
+     * templates.
+     *
+     * @param template the template.
+     * @return the rendered text.
+     * @throws org.apache.velocity.exception.VelocityException if the template is invalid.
+     */
+    @NotNull
+    public static String renderSample(@NotNull String template) {
+        VelocityEngine velocity = VelocityEngineFactory.getVelocityEngine();
+        StringWriter stringWriter = new StringWriter();
+        velocity.evaluate(PropertyDescriptor.SAMPLE.toVariables().toContext(), stringWriter,
+                DocRenderer.class.getName(), template);
+        return stringWriter.toString();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Enumeration for the formatting of inserted comments.
+ *
+ * @author Burt Parkers
+ */
+public enum FormatMode {
+
+    /** Reformats the whole method after the insertion, the behavior of previous versions. */
+    METHOD,
+
+    /** Reformats only the ranges of the inserted comments, one pass per file. */
+    COMMENT,
+
+    /** Indents the rendered comment like the method, the formatter is not called. */
+    PRE_INDENT;
+
+    /**
+     * Returns the mode for a stored value.
+     *
+     * @param value the stored value, may be null.
+     * @return the mode, {@linkplain #COMMENT} if the value is unknown.
+     */
+    @NotNull
+    public static FormatMode fromValue(@Nullable String value) {
+        for (FormatMode formatMode : values()) {
+            if (formatMode.name().equals(value)) {
+                return formatMode;
+            }
+        }
+        return COMMENT;
+    }
+}
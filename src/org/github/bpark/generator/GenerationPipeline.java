@@ -0,0 +1,279 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationAdapter;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.PerformInBackgroundOption;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.impl.BackgroundableProcessIndicator;
+import com.intellij.openapi.progress.util.ProgressIndicatorBase;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.EmptyRunnable;
+import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.wm.StatusBar;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Runs the generation for one file in two phases. The read phase renders the {@linkplain DocEdit}s inside a read
+ * action on a pooled thread, the apply phase inserts them with a short write command in the event dispatch thread.
+ * The read phase does not block write actions: it is cancelled when a write action starts and restarted afterwards.
+ * It is also restarted if the file was changed between both phases. Large edit lists are applied in slices by the
+ * {@linkplain ApplyScheduler}, with a cancellable progress in the status bar. The written, skipped and discarded
+ * comments are reported in the status bar.
+ *
+ * @author Burt Parkers
+ */
+public class GenerationPipeline {
+
+    /** The logger. */
+    private static final Logger LOG = Logger.getInstance("#" + GenerationPipeline.class.getName());
+
+    /** Maximum number of restarts caused by file changes, afterwards the edits are applied anyway. */
+    private static final int MAX_RESTARTS = 10;
+
+    /** The project. */
+    private final Project project;
+
+    /** The generator. */
+    private final JavadocGenerator generator;
+
+    /** Called when the generation is finished, may be null. */
+    private volatile Runnable onFinish;
+
+
+    /**
+     * Constructor.
+     *
+     * @param project the project.
+     * @param generator the generator used for the apply phase.
+     */
+    public GenerationPipeline(@NotNull Project project, @NotNull JavadocGenerator generator) {
+        this.project = project;
+        this.generator = generator;
+    }
+
+    /**
+     * Starts the generation. Returns immediately, the read phase runs on a pooled thread.
+     *
+     * @param psiFile the file to document.
+     * @param readPhase computes the edits, called inside a read action, possibly several times.
+     */
+    public void run(@NotNull PsiFile psiFile, @NotNull Computable<List<DocEdit>> readPhase) {
+        run(psiFile, readPhase, null);
+    }
+
+    /**
+     * Starts the generation and calls back when it is finished. Returns immediately, the read phase runs on a pooled
+     * thread.
+     *
+     * @param psiFile the file to document.
+     * @param readPhase computes the edits, called inside a read action, possibly several times.
+     * @param onFinish called once after the edits were applied, or if the generation was abandoned because the
+     *                 project was closed, the file became invalid or a phase failed, may be null.
+     */
+    public void run(@NotNull PsiFile psiFile, @NotNull Computable<List<DocEdit>> readPhase,
+                    @Nullable Runnable onFinish) {
+        this.onFinish = onFinish;
+        schedule(psiFile, readPhase, 0);
+    }
+
+    /**
+     * Schedules the read phase on a pooled thread.
+     *
+     * @param psiFile the file to document.
+     * @param readPhase computes the edits.
+     * @param restartCount the number of restarts caused by file changes.
+     */
+    private void schedule(@NotNull final PsiFile psiFile, @NotNull final Computable<List<DocEdit>> readPhase,
+                          final int restartCount) {
+        ApplicationManager.getApplication().executeOnPooledThread(new Runnable() {
+            public void run() {
+                runReadPhase(psiFile, readPhase, restartCount);
+            }
+        });
+    }
+
+    /**
+     * Runs the read phase until it completes without interruption by a write action, then schedules the apply
+     * phase.
+     *
+     * @param psiFile the file to document.
+     * @param readPhase computes the edits.
+     * @param restartCount the number of restarts caused by file changes.
+     */
+    private void runReadPhase(@NotNull final PsiFile psiFile, @NotNull final Computable<List<DocEdit>> readPhase,
+                              int restartCount) {
+        final Application application = ApplicationManager.getApplication();
+        while (!project.isDisposed()) {
+            final ProgressIndicator indicator = new ProgressIndicatorBase();
+            indicator.start();
+            ApplicationAdapter writeActionListener = new ApplicationAdapter() {
+                @Override
+                public void beforeWriteActionStart(Object action) {
+                    indicator.cancel();
+                }
+            };
+            application.addApplicationListener(writeActionListener);
+            final int skippedCountBefore = generator.getSkippedCount();
+            try {
+                final Ref<List<DocEdit>> docEdits = Ref.create();
+                final Ref<Long> modificationStamp = Ref.create();
+                ProgressManager.getInstance().runProcess(new Runnable() {
+                    public void run() {
+                        application.runReadAction(new Runnable() {
+                            public void run() {
+                                if (psiFile.isValid()) {
+                                    modificationStamp.set(psiFile.getModificationStamp());
+                                    docEdits.set(readPhase.compute());
+                                }
+                            }
+                        });
+                    }
+                }, indicator);
+                if (docEdits.get() != null) {
+                    int skippedCount = generator.getSkippedCount() - skippedCountBefore;
+                    scheduleApply(psiFile, readPhase, docEdits.get(), modificationStamp.get(), skippedCount,
+                            restartCount);
+                } else {
+                    finish();
+                }
+                return;
+            } catch (ProcessCanceledException e) {
+                LOG.debug("Read phase cancelled by a write action, restarting");
+            } catch (RuntimeException e) {
+                LOG.error(e);
+                finish();
+                return;
+            } finally {
+                application.removeApplicationListener(writeActionListener);
+            }
+            // blocks until the pending write action is finished
+            application.runReadAction(EmptyRunnable.getInstance());
+        }
+        finish();
+    }
+
+    /**
+     * Schedules the apply phase in the event dispatch thread. If the file was changed since the read phase, the read
+     * phase is restarted instead.
+     *
+     * @param psiFile the file to document.
+     * @param readPhase computes the edits.
+     * @param docEdits the edits to apply.
+     * @param modificationStamp the modification stamp of the file at the start of the read phase.
+     * @param skippedCount the number of unchanged comments skipped by the read phase.
+     * @param restartCount the number of restarts caused by file changes.
+     */
+    private void scheduleApply(@NotNull final PsiFile psiFile, @NotNull final Computable<List<DocEdit>> readPhase,
+                               @NotNull final List<DocEdit> docEdits, final long modificationStamp,
+                               final int skippedCount, final int restartCount) {
+        ApplicationManager.getApplication().invokeLater(new Runnable() {
+            public void run() {
+                // true once the restarted read phase or the apply scheduler is responsible for the finish callback
+                boolean handedOver = false;
+                try {
+                    if (project.isDisposed() || !psiFile.isValid()) {
+                        return;
+                    }
+                    if (psiFile.getModificationStamp() != modificationStamp && restartCount < MAX_RESTARTS) {
+                        schedule(psiFile, readPhase, restartCount + 1);
+                        handedOver = true;
+                        return;
+                    }
+                    final int writtenCountBefore = generator.getWrittenCount();
+                    final int discardedCountBefore = generator.getDiscardedCount();
+                    if (docEdits.size() < ApplyScheduler.SLICE_THRESHOLD) {
+                        generator.apply(psiFile, docEdits);
+                        reportWritten(generator.getWrittenCount() - writtenCountBefore, skippedCount,
+                                generator.getDiscardedCount() - discardedCountBefore);
+                        return;
+                    }
+                    final BackgroundableProcessIndicator indicator = new BackgroundableProcessIndicator(project,
+                            "Inserting JavaDoc", PerformInBackgroundOption.ALWAYS_BACKGROUND, "Cancel", "Cancel",
+                            true);
+                    indicator.start();
+                    new ApplyScheduler(project, generator, psiFile, docEdits, indicator).start(new Runnable() {
+                        public void run() {
+                            try {
+                                try {
+                                    indicator.stop();
+                                    reportWritten(generator.getWrittenCount() - writtenCountBefore, skippedCount,
+                                            generator.getDiscardedCount() - discardedCountBefore);
+                                } finally {
+                                    Disposer.dispose(indicator);
+                                }
+                            } finally {
+                                finish();
+                            }
+                        }
+                    });
+                    handedOver = true;
+                } finally {
+                    if (!handedOver) {
+                        finish();
+                    }
+                }
+            }
+        }, ModalityState.NON_MODAL);
+    }
+
+    /** Calls the finish callback once. */
+    private void finish() {
+        Runnable callback = onFinish;
+        onFinish = null;
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
+    /**
+     * Reports the written, skipped and discarded comments in the status bar. Discarded comments are only mentioned
+     * if there are any.
+     *
+     * @param writtenCount the number of written comments.
+     * @param skippedCount the number of unchanged comments skipped.
+     * @param discardedCount the number of comments discarded, because the method was removed or documented meanwhile.
+     */
+    private void reportWritten(int writtenCount, int skippedCount, int discardedCount) {
+        String text = "JavaDoc: " + writtenCount + " comments written, " + skippedCount + " unchanged comments skipped";
+        if (discardedCount > 0) {
+            text += ", " + discardedCount + " discarded because the method changed meanwhile";
+        }
+        StatusBar.Info.set(text, project);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiMethod;
+import org.github.bpark.config.TemplateSnapshot;
+import org.github.bpark.metrics.RunMetrics;
+import org.github.bpark.util.MethodType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable description of one generation run, created per invocation, so concurrent runs never share state. The
+ * scope is a file, or a class of the file, and the selected accessors.
+ *
+ * @author Burt Parkers
+ */
+public final class GenerationRequest {
+
+    /** The project. */
+    private final Project project;
+
+    /** The documented file. */
+    private final PsiFile file;
+
+    /** The documented class, null for all classes of the file. */
+    private final PsiClass scopeClass;
+
+    /** The selected accessors. */
+    private final List<PsiMethod> methods;
+
+    /** The type of the selected accessors. */
+    private final MethodType methodType;
+
+    /** True if existing comments should be overwritten, otherwise false. */
+    private final boolean overwrite;
+
+    /** The settings at the time of the invocation. */
+    private final TemplateSnapshot snapshot;
+
+    /** The metrics of the run. */
+    private final RunMetrics metrics;
+
+
+    /**
+     * Constructor.
+     *
+     * @param project the project.
+     * @param file the documented file, must be a java file if no class is given.
+     * @param scopeClass the documented class, null for all classes of the file.
+     * @param methods the selected accessors.
+     * @param methodType the type of the selected accessors.
+     * @param overwrite true if existing comments should be overwritten, otherwise false.
+     * @param snapshot the settings.
+     * @param metrics the metrics of the run.
+     */
+    public GenerationRequest(@NotNull Project project, @NotNull PsiFile file, @Nullable PsiClass scopeClass,
+                             @NotNull List<PsiMethod> methods, @NotNull MethodType methodType, boolean overwrite,
+                             @NotNull TemplateSnapshot snapshot, @NotNull RunMetrics metrics) {
+        if (scopeClass == null && !(file instanceof PsiJavaFile)) {
+            throw new IllegalArgumentException("A class is needed for " + file.getName());
+        }
+        this.project = project;
+        this.file = file;
+        this.scopeClass = scopeClass;
+        this.methods = Collections.unmodifiableList(new ArrayList<PsiMethod>(methods));
+        this.methodType = methodType;
+        this.overwrite = overwrite;
+        this.snapshot = snapshot;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the project.
+     *
+     * @return the project.
+     */
+    @NotNull
+    public Project getProject() {
+        return project;
+    }
+
+    /**
+     * Returns the documented file.
+     *
+     * @return the file.
+     */
+    @NotNull
+    public PsiFile getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the documented class.
+     *
+     * @return the class, null for all classes of the file.
+     */
+    @Nullable
+    public PsiClass getScopeClass() {
+        return scopeClass;
+    }
+
+    /**
+     * Returns the selected accessors.
+     *
+     * @return the unmodifiable accessor list.
+     */
+    @NotNull
+    public List<PsiMethod> getMethods() {
+        return methods;
+    }
+
+    /**
+     * Returns the type of the selected accessors.
+     *
+     * @return the method type.
+     */
+    @NotNull
+    public MethodType getMethodType() {
+        return methodType;
+    }
+
+    /**
+     * Returns the overwrite flag.
+     *
+     * @return true if existing comments should be overwritten, otherwise false.
+     */
+    public boolean isOverwrite() {
+        return overwrite;
+    }
+
+    /**
+     * Returns the settings at the time of the invocation.
+     *
+     * @return the settings.
+     */
+    @NotNull
+    public TemplateSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the metrics of the run.
+     *
+     * @return the metrics.
+     */
+    @NotNull
+    public RunMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Checks whether another request documents the same scope, that is the same file and class with the same method
+     * type and overwrite flag. A newer request of the same scope supersedes an older one, requests of different
+     * scopes in the same file are independent.
+     *
+     * @param other the other request.
+     * @return true if both requests have the same scope, otherwise false.
+     */
+    public boolean hasSameScope(@NotNull GenerationRequest other) {
+        return file.equals(other.file) && (scopeClass == null ? other.scopeClass == null
+                : scopeClass.equals(other.scopeClass)) && methodType == other.methodType
+                && overwrite == other.overwrite;
+    }
+
+    /**
+     * Returns a short description of the scope for messages.
+     *
+     * @return the class name, or the file name for all classes of the file.
+     */
+    @NotNull
+    public String getScopeName() {
+        String className = scopeClass == null ? null : scopeClass.getName();
+        return className != null ? className : file.getName();
+    }
+
+    /**
+     * Creates a generator for this request.
+     *
+     * @return the new generator.
+     */
+    @NotNull
+    JavadocGenerator createGenerator() {
+        return new JavadocGenerator(project, overwrite, snapshot.getFormatMode(), metrics);
+    }
+
+    /**
+     * Renders the comments of the selected accessors. Must be called inside a read action.
+     *
+     * @param generator the generator created for this request.
+     * @return the edits to apply, empty if the scope is invalid.
+     */
+    @NotNull
+    List<DocEdit> prepare(@NotNull JavadocGenerator generator) {
+        if (scopeClass == null) {
+            return generator.prepare((PsiJavaFile) file, methods, snapshot);
+        }
+        if (!scopeClass.isValid()) {
+            return Collections.emptyList();
+        }
+        return generator.prepare(scopeClass, JavadocGenerator.groupByConfig(methods, snapshot, metrics));
+    }
+}
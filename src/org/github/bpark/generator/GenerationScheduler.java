@@ -0,0 +1,266 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.wm.StatusBar;
+import org.github.bpark.metrics.PipelineMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application service running the {@linkplain GenerationRequest}s of the accessor chooser of all projects, that is the
+ * runs of the generate actions in the editor, see {@code DocGenHandler}. The other entry points do not use the
+ * scheduler: the bulk and changed files actions span many files and run as their own background tasks, and the on save
+ * generation, the commit check and the inspection fix have to finish before the save, the commit or the fix completes,
+ * so they cannot wait in a queue. At most {@linkplain #MAX_CONCURRENT_RUNS} requests run at the same time, further
+ * requests wait in a queue. A queued request is replaced by a newer request with the same scope, see
+ * {@linkplain GenerationRequest#hasSameScope(GenerationRequest)}, and the user is told about it. Requests for other
+ * classes or accessor types of the same file stay queued. A request never starts while another request for the same
+ * file runs. The metrics of a request become the last run when the request starts, so a replaced request never shows
+ * up as the last run. The queue depth and the wait times are reported.
+ *
+ * @author Burt Parkers
+ */
+public class GenerationScheduler {
+
+    /** The logger. */
+    private static final Logger LOG = Logger.getInstance("#" + GenerationScheduler.class.getName());
+
+    /** Maximum number of requests running at the same time. */
+    static final int MAX_CONCURRENT_RUNS = 2;
+
+    /** The queued requests in submission order, guarded by this. */
+    private final List<QueuedRequest> queue = new LinkedList<QueuedRequest>();
+
+    /** The files of the running requests, guarded by this. */
+    private final Set<VirtualFile> runningFiles = new HashSet<VirtualFile>();
+
+    /** Number of submitted requests, guarded by this. */
+    private long submittedCount;
+
+    /** Number of queued requests replaced by a newer request with the same scope, guarded by this. */
+    private long replacedCount;
+
+    /** Number of started requests, guarded by this. */
+    private long startedCount;
+
+    /** Sum of the wait times of the started requests in nanoseconds, guarded by this. */
+    private long totalWaitNanos;
+
+    /** Longest wait time of a started request in nanoseconds, guarded by this. */
+    private long maxWaitNanos;
+
+
+    /**
+     * Returns the service instance.
+     *
+     * @return the service.
+     */
+    @NotNull
+    public static GenerationScheduler getInstance() {
+        return ServiceManager.getService(GenerationScheduler.class);
+    }
+
+    /**
+     * Submits a request. The request starts immediately if a run slot is free and its file is not being documented,
+     * otherwise it is queued, replacing a queued request with the same scope. Queuing and replacing are shown in the
+     * status bar. Must be called in the event dispatch thread.
+     *
+     * @param request the request.
+     */
+    public void submit(@NotNull GenerationRequest request) {
+        VirtualFile file = request.getFile().getVirtualFile();
+        if (file == null) {
+            LOG.warn("Request for " + request.getFile().getName() + " ignored, the file is not physical");
+            return;
+        }
+        QueuedRequest queuedRequest = new QueuedRequest(request, file, System.nanoTime());
+        boolean replaced = false;
+        boolean queued;
+        int queueDepth;
+        synchronized (this) {
+            submittedCount++;
+            for (Iterator<QueuedRequest> iterator = queue.iterator(); iterator.hasNext(); ) {
+                if (iterator.next().request.hasSameScope(request)) {
+                    iterator.remove();
+                    replacedCount++;
+                    replaced = true;
+                }
+            }
+            queue.add(queuedRequest);
+            startQueued();
+            queued = queue.contains(queuedRequest);
+            queueDepth = queue.size();
+        }
+        if (queued) {
+            String message = "JavaDoc generation for " + request.getScopeName() + " queued, " + queueDepth + " waiting";
+            if (replaced) {
+                message += ", replaces the earlier queued request";
+            }
+            StatusBar.Info.set(message, request.getProject());
+        }
+    }
+
+    /**
+     * Returns the number of waiting requests.
+     *
+     * @return the queue depth.
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of running requests.
+     *
+     * @return the number of running requests.
+     */
+    public synchronized int getRunningCount() {
+        return runningFiles.size();
+    }
+
+    /**
+     * Returns the average wait time of the started requests.
+     *
+     * @return the average wait time in milliseconds, 0 if no request was started.
+     */
+    public synchronized long getAverageWaitMillis() {
+        return startedCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos / startedCount);
+    }
+
+    /**
+     * Returns the longest wait time of a started request.
+     *
+     * @return the longest wait time in milliseconds.
+     */
+    public synchronized long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return runningFiles.size() + " running, " + queue.size() + " queued, " + submittedCount + " submitted, "
+                + replacedCount + " replaced, wait " + getAverageWaitMillis() + " ms average, " + getMaxWaitMillis()
+                + " ms max";
+    }
+
+    /** Starts queued requests while run slots are free, skipping files which are being documented. */
+    private synchronized void startQueued() {
+        Iterator<QueuedRequest> iterator = queue.iterator();
+        while (runningFiles.size() < MAX_CONCURRENT_RUNS && iterator.hasNext()) {
+            QueuedRequest queuedRequest = iterator.next();
+            if (runningFiles.contains(queuedRequest.file)) {
+                continue;
+            }
+            iterator.remove();
+            runningFiles.add(queuedRequest.file);
+            long waitNanos = System.nanoTime() - queuedRequest.queuedNanos;
+            startedCount++;
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Starting request for " + queuedRequest.file.getName() + " after "
+                        + TimeUnit.NANOSECONDS.toMillis(waitNanos) + " ms, " + queue.size() + " queued");
+            }
+            start(queuedRequest.file, queuedRequest.request);
+        }
+    }
+
+    /**
+     * Starts the pipeline of a request, its metrics become the last run. The pipeline runs asynchronously, the next
+     * queued request is started when it finishes.
+     *
+     * @param file the documented file.
+     * @param request the request.
+     */
+    private void start(@NotNull final VirtualFile file, @NotNull final GenerationRequest request) {
+        Runnable onFinish = new Runnable() {
+            public void run() {
+                synchronized (GenerationScheduler.this) {
+                    runningFiles.remove(file);
+                    startQueued();
+                }
+            }
+        };
+        // started from inside startQueued, a failed request finishes later to keep the iteration intact
+        if (request.getProject().isDisposed()) {
+            ApplicationManager.getApplication().executeOnPooledThread(onFinish);
+            return;
+        }
+        try {
+            PipelineMetrics.getInstance().startRun(request.getMetrics());
+            final JavadocGenerator generator = request.createGenerator();
+            new GenerationPipeline(request.getProject(), generator).run(request.getFile(),
+                    new Computable<List<DocEdit>>() {
+                        public List<DocEdit> compute() {
+                            return request.prepare(generator);
+                        }
+                    }, onFinish);
+        } catch (RuntimeException e) {
+            LOG.error("Starting the request for " + file.getName() + " failed", e);
+            ApplicationManager.getApplication().executeOnPooledThread(onFinish);
+        }
+    }
+
+    /**
+     * Queued request with its file and queue time.
+     */
+    private static final class QueuedRequest {
+
+        /** The request. */
+        private final GenerationRequest request;
+
+        /** The documented file. */
+        private final VirtualFile file;
+
+        /** The value of {@linkplain System#nanoTime()} when the request was queued. */
+        private final long queuedNanos;
+
+        /**
+         * Constructor.
+         *
+         * @param request the request.
+         * @param file the documented file.
+         * @param queuedNanos the value of {@linkplain System#nanoTime()} when the request was queued.
+         */
+        QueuedRequest(@NotNull GenerationRequest request, @NotNull VirtualFile file, long queuedNanos) {
+            this.request = request;
+            this.file = file;
+            this.queuedNanos = queuedNanos;
+        }
+    }
+}
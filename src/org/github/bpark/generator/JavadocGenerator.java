@@ -25,20 +25,33 @@
 
 package org.github.bpark.generator;
 
-import com.intellij.openapi.application.Application;
-import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.Result;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.*;
-import com.intellij.psi.codeStyle.CodeStyleManager;
 import com.intellij.psi.javadoc.PsiDocComment;
 import com.intellij.psi.util.PropertyUtil;
-import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.VelocityEngine;
 import org.github.bpark.config.AbstractDocConfig;
+import org.github.bpark.config.DocTemplate;
+import org.github.bpark.config.TemplateSnapshot;
+import org.github.bpark.metrics.RunMetrics;
+import org.github.bpark.metrics.Stage;
+import org.github.bpark.util.GenDocPsiUtil;
+import org.github.bpark.util.MethodType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Generator for processing the templates and generating the javadoc comments.
@@ -47,126 +60,490 @@ import java.util.List;
  */
 public class JavadocGenerator {
 
+    /** The logger. */
+    private static final Logger LOG = Logger.getInstance("#" + JavadocGenerator.class.getName());
+
+    /** The name of the undoable command. */
+    private static final String COMMAND_NAME = "Generate JavaDoc";
+
     /** The project. */
     private Project project;
 
     /** True for overwriting existing comments, false otherwise. */
     private boolean overwrite;
 
+    /** The formatter for the inserted comments. */
+    private CommentFormatter commentFormatter;
+
+    /** The metrics of the current run. */
+    private final RunMetrics metrics;
+
+    /** Number of inserted comments. */
+    private final AtomicInteger writtenCount = new AtomicInteger();
+
+    /** Number of existing comments which were not overwritten, because the rendered comment is the same. */
+    private final AtomicInteger skippedCount = new AtomicInteger();
+
+    /** Number of edits discarded, because the method was removed or documented after the edit was prepared. */
+    private final AtomicInteger discardedCount = new AtomicInteger();
+
 
     /**
-     * Constructor.
+     * Constructor, the inserted comments are formatted with {@linkplain FormatMode#COMMENT}.
      *
      * @param project the project.
      * @param overwrite overwrite flag, true if existing comments should be overwritten, otherwise false.
      */
     public JavadocGenerator(@NotNull Project project, boolean overwrite) {
+        this(project, overwrite, FormatMode.COMMENT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param project the project.
+     * @param overwrite overwrite flag, true if existing comments should be overwritten, otherwise false.
+     * @param formatMode the formatting of the inserted comments.
+     */
+    public JavadocGenerator(@NotNull Project project, boolean overwrite, @NotNull FormatMode formatMode) {
+        this(project, overwrite, formatMode, RunMetrics.DISABLED);
+    }
+
+    /**
+     * Constructor, the stages of the generation are measured.
+     *
+     * @param project the project.
+     * @param overwrite overwrite flag, true if existing comments should be overwritten, otherwise false.
+     * @param formatMode the formatting of the inserted comments.
+     * @param metrics the metrics of the current run.
+     */
+    public JavadocGenerator(@NotNull Project project, boolean overwrite, @NotNull FormatMode formatMode,
+                            @NotNull RunMetrics metrics) {
         this.project = project;
         this.overwrite = overwrite;
+        this.commentFormatter = new CommentFormatter(project, formatMode);
+        this.metrics = metrics;
     }
 
     /**
-     * Generates the javadoc comment for a given method list. Depending of the overwrite configuration the javadoc
-     * comments are generated or not. Overridden annotated methods are ignored.
+     * Generates the javadoc comments for the given methods. Depending of the overwrite configuration the javadoc
+     * comments are generated or not. All comments are inserted with one undoable write command.
      *
      * @param psiClass the class.
      * @param psiMethodLists the methods for the javadoc generation.
      * @param abstractDocConfig the configuration.
      */
     public void generate(@NotNull PsiClass psiClass, @NotNull List<PsiMethod> psiMethodLists, @NotNull AbstractDocConfig abstractDocConfig) {
-        for (final PsiMethod psiMethod : psiMethodLists) {
-
-            final PsiElement firstChild = psiMethod.getFirstChild();
-
-            final boolean hasComment = firstChild instanceof PsiDocComment;
+        generate(psiClass, Collections.singletonMap(DocTemplate.of(abstractDocConfig), psiMethodLists));
+    }
 
-            boolean enterIfHasComment = !hasComment || overwrite;
+    /**
+     * Generates the javadoc comments for methods of different configurations, e.g. getters and setters. The
+     * comments are rendered first, afterwards all comments are inserted with one undoable write command, formatted
+     * in one pass and the document is committed once. Both phases run in the calling thread.
+     *
+     * @param psiClass the class.
+     * @param configMethodMap the methods for the javadoc generation, grouped by their template.
+     */
+    public void generate(@NotNull PsiClass psiClass, @NotNull Map<DocTemplate, List<PsiMethod>> configMethodMap) {
+        apply(psiClass.getContainingFile(), prepare(psiClass, configMethodMap));
+    }
 
-            if (project != null && firstChild != null && enterIfHasComment) {
+    /**
+     * Renders the comments for methods of different configurations. Nothing is changed, the returned edits are
+     * inserted with {@linkplain #apply(PsiFile, List)}. Must be called inside a read action, checks for cancellation
+     * after each method. The inputs of all comments are extracted first, then the comments are rendered in parallel
+     * if there are enough of them.
+     *
+     * @param psiClass the class.
+     * @param configMethodMap the methods for the javadoc generation, grouped by their template.
+     * @return the edits to apply.
+     */
+    @NotNull
+    public List<DocEdit> prepare(@NotNull PsiClass psiClass,
+                                 @NotNull Map<DocTemplate, List<PsiMethod>> configMethodMap) {
+        List<PendingEdit> pendingEdits = new ArrayList<PendingEdit>();
+        collectPendingEdits(psiClass, configMethodMap, pendingEdits);
+        return createEdits(pendingEdits);
+    }
 
-                PsiElementFactory psiElementFactory = JavaPsiFacade.getInstance(project).getElementFactory();
+    /**
+     * Renders the comments for the accessors of all classes of a file, including nested classes. Must be called
+     * inside a read action.
+     *
+     * @param psiJavaFile the file.
+     * @param methodType the methods to document.
+     * @param snapshot the settings.
+     * @return the edits to apply, empty if the file is invalid.
+     */
+    @NotNull
+    public List<DocEdit> prepare(@NotNull PsiJavaFile psiJavaFile, @NotNull MethodType methodType,
+                                 @NotNull TemplateSnapshot snapshot) {
+        if (!psiJavaFile.isValid()) {
+            return Collections.emptyList();
+        }
+        List<PendingEdit> pendingEdits = new ArrayList<PendingEdit>();
+        for (PsiClass psiClass : GenDocPsiUtil.collectClasses(psiJavaFile)) {
+            List<PsiMethod> methodList = GenDocPsiUtil.retrieveMethods(psiClass, methodType, metrics);
+            if (!methodList.isEmpty()) {
+                collectPendingEdits(psiClass, groupByConfig(methodList, snapshot, metrics), pendingEdits);
+            }
+        }
+        return createEdits(pendingEdits);
+    }
 
-                String template = abstractDocConfig.getTemplate();
+    /**
+     * Renders the comments for selected accessors of different classes of one file. The methods are grouped by their
+     * class, the classes in the order of {@linkplain GenDocPsiUtil#collectClasses(PsiJavaFile)}. Must be called
+     * inside a read action.
+     *
+     * @param psiJavaFile the file.
+     * @param psiMethodList the selected accessors.
+     * @param snapshot the settings.
+     * @return the edits to apply, empty if the file is invalid.
+     */
+    @NotNull
+    public List<DocEdit> prepare(@NotNull PsiJavaFile psiJavaFile, @NotNull List<PsiMethod> psiMethodList,
+                                 @NotNull TemplateSnapshot snapshot) {
+        if (!psiJavaFile.isValid()) {
+            return Collections.emptyList();
+        }
+        Map<PsiClass, List<PsiMethod>> classMethodMap = new LinkedHashMap<PsiClass, List<PsiMethod>>();
+        for (PsiClass psiClass : GenDocPsiUtil.collectClasses(psiJavaFile)) {
+            classMethodMap.put(psiClass, new ArrayList<PsiMethod>());
+        }
+        for (PsiMethod psiMethod : psiMethodList) {
+            List<PsiMethod> methodList = psiMethod.isValid()
+                    ? classMethodMap.get(psiMethod.getContainingClass()) : null;
+            if (methodList != null) {
+                methodList.add(psiMethod);
+            }
+        }
+        List<PendingEdit> pendingEdits = new ArrayList<PendingEdit>();
+        for (Map.Entry<PsiClass, List<PsiMethod>> entry : classMethodMap.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                collectPendingEdits(entry.getKey(), groupByConfig(entry.getValue(), snapshot, metrics), pendingEdits);
+            }
+        }
+        return createEdits(pendingEdits);
+    }
 
-                String commentText = processTemplate(psiClass, psiMethod, template);
+    /**
+     * Inserts prepared comments of one file with one undoable write command, formats them in one pass and commits
+     * the document once. Edits of methods which do not exist anymore are skipped. Identical comment texts are parsed
+     * only once, see {@linkplain DocCommentPrototypes}. Must be called in the event dispatch thread.
+     *
+     * @param psiFile the file containing the methods.
+     * @param docEdits the edits to apply.
+     */
+    public void apply(@NotNull PsiFile psiFile, @NotNull List<DocEdit> docEdits) {
+        if (docEdits.isEmpty()) {
+            return;
+        }
+        applySlice(psiFile, docEdits, 0, Long.MAX_VALUE, null);
+    }
 
-                final PsiDocComment docCommentFromText = psiElementFactory.createDocCommentFromText(commentText);
-                Application application = ApplicationManager.getApplication();
-                application.runWriteAction(new Runnable() {
-                    public void run() {
-                        if (hasComment) {
-                            firstChild.replace(docCommentFromText);
-                        } else {
-                            psiMethod.addBefore(docCommentFromText, psiMethod.getFirstChild());
-                        }
-                        CodeStyleManager.getInstance(project).reformat(psiMethod);
+    /**
+     * Inserts prepared comments of one file, starting at an index, until all comments are inserted or the deadline
+     * is reached. The inserted comments are formatted and the document is committed before the write command ends.
+     * An edit is discarded if its method was removed, or if the method got a comment after the edit was prepared
+     * and the overwrite flag is not set. Must be called in the event dispatch thread.
+     *
+     * @param psiFile the file containing the methods.
+     * @param docEdits the edits to apply.
+     * @param fromIndex the index of the first edit to apply.
+     * @param deadline the value of {@linkplain System#nanoTime()} after which no further edit is started.
+     * @param groupId the undo group, consecutive commands of the same group are undone together, may be null.
+     * @return the index of the first edit which was not applied, the size of the list if all edits were applied.
+     */
+    int applySlice(@NotNull final PsiFile psiFile, @NotNull final List<DocEdit> docEdits, final int fromIndex,
+                   final long deadline, @Nullable final String groupId) {
+        return new WriteCommandAction<Integer>(project, COMMAND_NAME, psiFile) {
+            @Override
+            protected void run(Result<Integer> result) throws Throwable {
+                long start = System.nanoTime();
+                DocCommentPrototypes docCommentPrototypes = DocCommentPrototypes.getInstance(project);
+                List<PsiDocComment> insertedComments = new ArrayList<PsiDocComment>();
+                int index = fromIndex;
+                while (index < docEdits.size() && (index == fromIndex || System.nanoTime() < deadline)) {
+                    DocEdit docEdit = docEdits.get(index++);
+                    PsiMethod psiMethod = docEdit.getMethod();
+                    if (psiMethod == null || isDocumentedSince(psiMethod, docEdit)) {
+                        discardedCount.incrementAndGet();
+                        continue;
                     }
-                });
+                    long parseStart = System.nanoTime();
+                    PsiDocComment docComment = docCommentPrototypes.create(docEdit.getText());
+                    metrics.record(Stage.PARSE, parseStart);
+                    long writeStart = System.nanoTime();
+                    insertedComments.add(insert(psiMethod, docComment));
+                    metrics.record(Stage.WRITE, writeStart);
+                    writtenCount.incrementAndGet();
+                }
+                long reformatStart = System.nanoTime();
+                commentFormatter.format(psiFile, insertedComments);
+                commitDocument(psiFile);
+                metrics.record(Stage.REFORMAT, reformatStart);
+                if (LOG.isDebugEnabled()) {
+                    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    LOG.debug("Write lock held " + millis + " ms for " + insertedComments.size() + " comments");
+                }
+                result.setResult(index);
             }
-        }
+
+            @Override
+            protected String getGroupID() {
+                return groupId;
+            }
+        }.execute().getResultObject();
     }
 
     /**
-     * Method for processing the template with velocity.
+     * Returns the number of comments inserted by this generator.
      *
-     * @param psiClass the class.
-     * @param psiMethod the method.
-     * @param template the template.
-     * @return the final javadoc string.
+     * @return the number of written comments.
      */
-    @NotNull
-    private String processTemplate(@NotNull PsiClass psiClass, @NotNull PsiMethod psiMethod, @NotNull String template) {
-        VelocityContext velocityContext = new VelocityContext();
-
-        String propertyName = PropertyUtil.getPropertyName(psiMethod);
-        velocityContext.put("field", propertyName);
-        velocityContext.put("field_type", PropertyUtil.getPropertyType(psiMethod));
+    public int getWrittenCount() {
+        return writtenCount.get();
+    }
 
-        velocityContext.put("class_name", psiClass.getName());
-        velocityContext.put("full_class_name", psiClass.getQualifiedName());
-        velocityContext.put("project_name", project.getName());
+    /**
+     * Returns the number of existing comments which were not overwritten, because they already match the template.
+     *
+     * @return the number of skipped comments.
+     */
+    public int getSkippedCount() {
+        return skippedCount.get();
+    }
 
-        VelocityEngine velocity = VelocityEngineFactory.getVelocityEngine();
+    /**
+     * Returns the number of edits discarded, because the method was removed or documented after the edit was
+     * prepared.
+     *
+     * @return the number of discarded edits.
+     */
+    public int getDiscardedCount() {
+        return discardedCount.get();
+    }
 
-        StringWriter stringWriter = new StringWriter();
+    /**
+     * Returns the metrics of the current run.
+     *
+     * @return the metrics, {@linkplain RunMetrics#DISABLED} if nothing is measured.
+     */
+    @NotNull
+    public RunMetrics getMetrics() {
+        return metrics;
+    }
 
-        velocity.evaluate(velocityContext, stringWriter, getClass().getName(), template);
+    /**
+     * Groups accessor methods by their template, getters before setters.
+     *
+     * @param psiMethodList the methods, other methods than setters and getters are ignored.
+     * @param snapshot the settings containing the getter and setter templates.
+     * @return the methods grouped by their template.
+     */
+    @NotNull
+    public static Map<DocTemplate, List<PsiMethod>> groupByConfig(@NotNull List<PsiMethod> psiMethodList,
+                                                                  @NotNull TemplateSnapshot snapshot) {
+        return groupByConfig(psiMethodList, snapshot, RunMetrics.DISABLED);
+    }
 
-        return stringWriter.getBuffer().toString();
+    /**
+     * Groups accessor methods by their template, getters before setters, and measures the classification.
+     *
+     * @param psiMethodList the methods, other methods than setters and getters are ignored.
+     * @param snapshot the settings containing the getter and setter templates.
+     * @param metrics the metrics of the current run.
+     * @return the methods grouped by their template.
+     */
+    @NotNull
+    public static Map<DocTemplate, List<PsiMethod>> groupByConfig(@NotNull List<PsiMethod> psiMethodList,
+                                                                  @NotNull TemplateSnapshot snapshot,
+                                                                  @NotNull RunMetrics metrics) {
+        Map<DocTemplate, List<PsiMethod>> configMethodMap = new LinkedHashMap<DocTemplate, List<PsiMethod>>();
+        configMethodMap.put(snapshot.getGetterTemplate(),
+                GenDocPsiUtil.filter(psiMethodList, MethodType.GETTER, metrics));
+        configMethodMap.put(snapshot.getSetterTemplate(),
+                GenDocPsiUtil.filter(psiMethodList, MethodType.SETTER, metrics));
+        return configMethodMap;
     }
 
     /**
-     * Validates a given template.
+     * Extracts the rendering inputs for methods of different configurations. Methods with an existing comment are
+     * skipped unless the overwrite flag is set, methods which became invalid are skipped. Must be called inside a
+     * read action.
      *
-     * @param template the template.
-     * @return true if the template is valid, otherwise false.
+     * @param psiClass the class.
+     * @param configMethodMap the methods for the javadoc generation, grouped by their template.
+     * @param pendingEdits the list the extracted inputs are added to, in source order.
      */
-    public boolean validateTemplate(@NotNull String template) {
-        try {
-            VelocityContext velocityContext = new VelocityContext();
+    private void collectPendingEdits(@NotNull PsiClass psiClass,
+                                     @NotNull Map<DocTemplate, List<PsiMethod>> configMethodMap,
+                                     @NotNull List<PendingEdit> pendingEdits) {
+        SmartPointerManager smartPointerManager = SmartPointerManager.getInstance(project);
+        for (Map.Entry<DocTemplate, List<PsiMethod>> entry : configMethodMap.entrySet()) {
+            String configName = entry.getKey().getConfigName();
+            String template = entry.getKey().getTemplate();
+
+            for (PsiMethod psiMethod : entry.getValue()) {
+                ProgressManager.checkCanceled();
+
+                PsiElement firstChild = psiMethod.isValid() ? psiMethod.getFirstChild() : null;
+
+                boolean hasComment = firstChild instanceof PsiDocComment;
+
+                boolean enterIfHasComment = !hasComment || overwrite;
+
+                if (firstChild != null && enterIfHasComment) {
+                    int startOffset = psiMethod.getTextRange().getStartOffset();
+                    TextRange range = hasComment ? firstChild.getTextRange()
+                            : new TextRange(startOffset, startOffset);
+                    pendingEdits.add(new PendingEdit(smartPointerManager.createSmartPsiElementPointer(psiMethod),
+                            range, hasComment ? firstChild.getText() : null, CommentFormatter.getIndent(psiMethod),
+                            configName, template, describe(psiClass, psiMethod)));
+                }
+            }
+        }
+    }
 
-            String propertyName = "testName";
-            velocityContext.put("field", propertyName);
-            velocityContext.put("field_type", "int");
+    /**
+     * Renders the comments and creates the edits in the order of the inputs. An existing comment which differs from
+     * the rendered comment only in formatting is not overwritten.
+     *
+     * @param pendingEdits the rendering inputs.
+     * @return the edits to apply.
+     */
+    @NotNull
+    private List<DocEdit> createEdits(@NotNull List<PendingEdit> pendingEdits) {
+        List<String> commentTexts = ParallelRenderer.render(pendingEdits, metrics);
+        List<DocEdit> docEdits = new ArrayList<DocEdit>(pendingEdits.size());
+        for (int i = 0; i < pendingEdits.size(); i++) {
+            PendingEdit pendingEdit = pendingEdits.get(i);
+            String commentText = commentFormatter.prepare(commentTexts.get(i), pendingEdit.getIndent());
+            String existingText = pendingEdit.getExistingText();
+            if (existingText != null && CommentTextUtil.isSame(existingText, commentText)) {
+                skippedCount.incrementAndGet();
+                continue;
+            }
+            docEdits.add(pendingEdit.toDocEdit(commentText));
+        }
+        return docEdits;
+    }
 
-            velocityContext.put("class_name", "MyClass");
-            velocityContext.put("full_class_name", "com.test.MyClass");
-            velocityContext.put("project_name", "test-project");
+    /**
+     * Checks if a method without comment at preparation time has a comment now, e.g. typed by the user while the
+     * edits were applied. Such a comment is only replaced with the overwrite flag.
+     *
+     * @param psiMethod the method.
+     * @param docEdit the prepared edit.
+     * @return true if the edit must be discarded, otherwise false.
+     */
+    private boolean isDocumentedSince(@NotNull PsiMethod psiMethod, @NotNull DocEdit docEdit) {
+        return !overwrite && docEdit.getRange().isEmpty() && psiMethod.getFirstChild() instanceof PsiDocComment;
+    }
 
-            VelocityEngine velocity = VelocityEngineFactory.getVelocityEngine();
+    /**
+     * Inserts a comment, an existing comment is replaced. Must be called inside a write action.
+     *
+     * @param psiMethod the method to document.
+     * @param docComment the new comment.
+     * @return the inserted comment.
+     */
+    @NotNull
+    private static PsiDocComment insert(@NotNull PsiMethod psiMethod, @NotNull PsiDocComment docComment) {
+        PsiElement firstChild = psiMethod.getFirstChild();
+        if (firstChild instanceof PsiDocComment) {
+            return (PsiDocComment) firstChild.replace(docComment);
+        }
+        return (PsiDocComment) psiMethod.addBefore(docComment, firstChild);
+    }
 
-            StringWriter stringWriter = new StringWriter();
+    /**
+     * Performs the postponed formatting and commits the document of a file, so the changes of the whole run are
+     * synchronized only once.
+     *
+     * @param psiFile the changed file.
+     */
+    private void commitDocument(@NotNull PsiFile psiFile) {
+        PsiDocumentManager psiDocumentManager = PsiDocumentManager.getInstance(project);
+        Document document = psiDocumentManager.getDocument(psiFile);
+        if (document != null) {
+            psiDocumentManager.doPostponedOperationsAndUnblockDocument(document);
+            psiDocumentManager.commitDocument(document);
+        }
+    }
 
-            velocity.evaluate(velocityContext, stringWriter, getClass().getName(), template);
+    /**
+     * Renders the comment of a method without changing anything. Must be called inside a read action.
+     *
+     * @param psiClass the class.
+     * @param psiMethod the method.
+     * @param docTemplate the template.
+     * @return the rendered comment.
+     */
+    @NotNull
+    public String render(@NotNull PsiClass psiClass, @NotNull PsiMethod psiMethod, @NotNull DocTemplate docTemplate) {
+        return processTemplate(psiClass, psiMethod, docTemplate.getConfigName(), docTemplate.getTemplate());
+    }
 
-            PsiElementFactory psiElementFactory = JavaPsiFacade.getInstance(project).getElementFactory();
+    /**
+     * Method for processing the template with velocity.
+     *
+     * @param psiClass the class.
+     * @param psiMethod the method.
+     * @param configName the configuration name, the key for the parsed template.
+     * @param template the template.
+     * @return the final javadoc string.
+     */
+    @NotNull
+    private String processTemplate(@NotNull PsiClass psiClass, @NotNull PsiMethod psiMethod,
+                                   @NotNull String configName, @NotNull String template) {
+        long renderStart = System.nanoTime();
+        String commentText = DocRenderer.getShared().render(configName, template, describe(psiClass, psiMethod));
+        metrics.record(Stage.RENDER, renderStart);
+        return commentText;
+    }
 
-            String commentText = stringWriter.getBuffer().toString();
+    /**
+     * Creates the plain description of an accessor. The type is a snapshot of the property type, which offers the
+     * same template properties as the {@code PsiType} the templates got before the descriptors were introduced.
+     *
+     * @param psiClass the class.
+     * @param psiMethod the accessor.
+     * @return the descriptor.
+     */
+    @NotNull
+    private PropertyDescriptor describe(@NotNull PsiClass psiClass, @NotNull PsiMethod psiMethod) {
+        PsiType propertyType = PropertyUtil.getPropertyType(psiMethod);
+        return new PropertyDescriptor(PropertyUtil.getPropertyName(psiMethod),
+                propertyType != null ? PropertyType.of(propertyType.getPresentableText(),
+                        propertyType.getCanonicalText(), propertyType.getInternalCanonicalText()) : null,
+                psiClass.getName(),
+                psiClass.getQualifiedName(), project.getName());
+    }
 
-            psiElementFactory.createDocCommentFromText(commentText);
-            return true;
-        } catch (Exception e) {
-            return false;
+    /**
+     * Validates a given template. In addition to the checks of the {@linkplain TemplateValidator} the rendered
+     * comment is parsed by the PSI, a deeper but slower check which needs a project. The PSI check only runs if the
+     * standalone check passes.
+     *
+     * @param template the template.
+     * @return the result of the first failed check, {@linkplain ValidationResult#VALID} if both checks pass.
+     */
+    @NotNull
+    public ValidationResult validateTemplate(@NotNull String template) {
+        ValidationResult result = TemplateValidator.validate(template);
+        if (!result.isValid()) {
+            return result;
+        }
+        try {
+            String commentText = DocRenderer.renderSample(template);
+            JavaPsiFacade.getInstance(project).getElementFactory().createDocCommentFromText(commentText);
+            return ValidationResult.VALID;
+        } catch (RuntimeException e) {
+            return ValidationResult.error("The rendered comment is not accepted by the java parser: "
+                    + e.getMessage(), 0, 0);
         }
     }
 }
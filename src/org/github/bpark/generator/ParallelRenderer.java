@@ -0,0 +1,157 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import org.github.bpark.metrics.RunMetrics;
+import org.github.bpark.metrics.Stage;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Renders {@linkplain PendingEdit}s on the pooled threads of the application. Small inputs are rendered in the
+ * calling thread, larger inputs are split into one chunk per core. The results are merged in the order of the
+ * input. The calling thread checks for cancellation while it waits, a cancellation interrupts the chunks, which stop
+ * before their next comment.
+ *
+ * @author Burt Parkers
+ */
+final class ParallelRenderer {
+
+    /** Minimum number of comments rendered in parallel, smaller inputs are not worth the hand off. */
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    /** Interval of the cancellation checks while waiting for a chunk in milliseconds. */
+    private static final long CANCEL_CHECK_INTERVAL = 10;
+
+    /** The number of chunks rendered in parallel. */
+    private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+
+
+    /** Prevents util class instantiation. */
+    private ParallelRenderer() {
+    }
+
+    /**
+     * Renders the comments.
+     *
+     * @param pendingEdits the inputs.
+     * @param metrics the metrics of the current run.
+     * @return the rendered comments, in the order of the inputs.
+     */
+    @NotNull
+    static List<String> render(@NotNull List<PendingEdit> pendingEdits, @NotNull final RunMetrics metrics) {
+        if (pendingEdits.size() < PARALLEL_THRESHOLD || THREAD_COUNT == 1) {
+            return renderChunk(pendingEdits, metrics);
+        }
+
+        int chunkSize = (pendingEdits.size() + THREAD_COUNT - 1) / THREAD_COUNT;
+        List<Future<List<String>>> futures = new ArrayList<Future<List<String>>>(THREAD_COUNT);
+        for (int start = 0; start < pendingEdits.size(); start += chunkSize) {
+            final List<PendingEdit> chunk =
+                    pendingEdits.subList(start, Math.min(start + chunkSize, pendingEdits.size()));
+            futures.add(ApplicationManager.getApplication().executeOnPooledThread(new Callable<List<String>>() {
+                public List<String> call() {
+                    return renderChunk(chunk, metrics);
+                }
+            }));
+        }
+
+        List<String> results = new ArrayList<String>(pendingEdits.size());
+        try {
+            for (Future<List<String>> future : futures) {
+                results.addAll(await(future));
+            }
+        } finally {
+            for (Future<List<String>> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Renders the comments in the calling thread, checks for cancellation and interruption before every comment.
+     *
+     * @param pendingEdits the inputs.
+     * @param metrics the metrics of the current run.
+     * @return the rendered comments, in the order of the inputs.
+     * @throws ProcessCanceledException if the calling process is cancelled or the thread is interrupted.
+     */
+    @NotNull
+    private static List<String> renderChunk(@NotNull List<PendingEdit> pendingEdits, @NotNull RunMetrics metrics) {
+        DocRenderer docRenderer = DocRenderer.getShared();
+        List<String> results = new ArrayList<String>(pendingEdits.size());
+        for (PendingEdit pendingEdit : pendingEdits) {
+            ProgressManager.checkCanceled();
+            if (Thread.currentThread().isInterrupted()) {
+                throw new ProcessCanceledException();
+            }
+            long renderStart = System.nanoTime();
+            results.add(docRenderer.render(pendingEdit.getConfigName(), pendingEdit.getTemplate(),
+                    pendingEdit.getDescriptor()));
+            metrics.record(Stage.RENDER, renderStart);
+        }
+        return results;
+    }
+
+    /**
+     * Waits for a chunk and checks for cancellation meanwhile.
+     *
+     * @param future the chunk.
+     * @return the rendered comments of the chunk.
+     * @throws ProcessCanceledException if the calling process is cancelled.
+     */
+    @NotNull
+    private static List<String> await(@NotNull Future<List<String>> future) {
+        while (true) {
+            ProgressManager.checkCanceled();
+            try {
+                return future.get(CANCEL_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // check for cancellation and wait again
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessCanceledException();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.SmartPsiElementPointer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable input of the rendering of one comment, extracted from the PSI inside a read action. Rendering needs no
+ * PSI access, so pending edits can be rendered on any thread.
+ *
+ * @author Burt Parkers
+ */
+final class PendingEdit {
+
+    /** Pointer to the method to document. */
+    private final SmartPsiElementPointer<PsiMethod> methodPointer;
+
+    /** The range of the existing comment, or the empty range at the method start. */
+    private final TextRange range;
+
+    /** The existing comment, null if the method has no comment. */
+    private final String existingText;
+
+    /** The indentation of the method. */
+    private final String indent;
+
+    /** The template. */
+    private final String configName;
+
+    /** The template content. */
+    private final String template;
+
+    /** The documented property. */
+    private final PropertyDescriptor descriptor;
+
+
+    /**
+     * Constructor.
+     *
+     * @param methodPointer pointer to the method to document.
+     * @param range the range of the existing comment, or the empty range at the method start.
+     * @param existingText the existing comment, null if the method has no comment.
+     * @param indent the indentation of the method.
+     * @param configName the configuration name of the template.
+     * @param template the template content.
+     * @param descriptor the documented property.
+     */
+    PendingEdit(@NotNull SmartPsiElementPointer<PsiMethod> methodPointer, @NotNull TextRange range,
+                @Nullable String existingText, @NotNull String indent, @NotNull String configName,
+                @NotNull String template, @NotNull PropertyDescriptor descriptor) {
+        this.methodPointer = methodPointer;
+        this.range = range;
+        this.existingText = existingText;
+        this.indent = indent;
+        this.configName = configName;
+        this.template = template;
+        this.descriptor = descriptor;
+    }
+
+    /**
+     * Creates the edit for the rendered comment.
+     *
+     * @param commentText the rendered and prepared comment.
+     * @return the edit.
+     */
+    @NotNull
+    DocEdit toDocEdit(@NotNull String commentText) {
+        return new DocEdit(methodPointer, range, commentText);
+    }
+
+    /**
+     * Returns the existing comment.
+     *
+     * @return the existing comment, null if the method has no comment.
+     */
+    @Nullable
+    String getExistingText() {
+        return existingText;
+    }
+
+    /**
+     * Returns the indentation of the method.
+     *
+     * @return the indentation.
+     */
+    @NotNull
+    String getIndent() {
+        return indent;
+    }
+
+    /**
+     * Returns the configuration name of the template.
+     *
+     * @return the configuration name.
+     */
+    @NotNull
+    String getConfigName() {
+        return configName;
+    }
+
+    /**
+     * Returns the template content.
+     *
+     * @return the template.
+     */
+    @NotNull
+    String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Returns the documented property.
+     *
+     * @return the descriptor.
+     */
+    @NotNull
+    PropertyDescriptor getDescriptor() {
+        return descriptor;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Plain description of a documented accessor, independent from the PSI. Holds the values of all template variables
+ * as text, the type as {@linkplain PropertyType}, a null value renders the reference itself.
+ *
+ * @author Burt Parkers
+ */
+public final class PropertyDescriptor {
+
+    /** Descriptor with sample values, used to check templates. */
+    public static final PropertyDescriptor SAMPLE =
+            new PropertyDescriptor("testName", "int", "MyClass", "com.test.MyClass", "test-project");
+
+    /** The field name. */
+    private final String fieldName;
+
+    /** The field type. */
+    private final PropertyType type;
+
+    /** The class name. */
+    private final String className;
+
+    /** The full qualified class name. */
+    private final String fullClassName;
+
+    /** The project name. */
+    private final String projectName;
+
+
+    /**
+     * Constructor, the type is given as one text, see {@linkplain PropertyType#ofText(String)}.
+     *
+     * @param fieldName the field name.
+     * @param typeText the field type as text.
+     * @param className the class name.
+     * @param fullClassName the full qualified class name.
+     * @param projectName the project name.
+     */
+    public PropertyDescriptor(@Nullable String fieldName, @Nullable String typeText, @Nullable String className,
+                              @Nullable String fullClassName, @Nullable String projectName) {
+        this(fieldName, typeText != null ? PropertyType.ofText(typeText) : null, className, fullClassName,
+                projectName);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fieldName the field name.
+     * @param type the field type.
+     * @param className the class name.
+     * @param fullClassName the full qualified class name.
+     * @param projectName the project name.
+     */
+    public PropertyDescriptor(@Nullable String fieldName, @Nullable PropertyType type, @Nullable String className,
+                              @Nullable String fullClassName, @Nullable String projectName) {
+        this.fieldName = fieldName;
+        this.type = type;
+        this.className = className;
+        this.fullClassName = fullClassName;
+        this.projectName = projectName;
+    }
+
+    /**
+     * Returns the field name.
+     *
+     * @return the field name, may be null.
+     */
+    @Nullable
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Returns the field type.
+     *
+     * @return the field type, may be null.
+     */
+    @Nullable
+    public PropertyType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the class name.
+     *
+     * @return the class name, may be null.
+     */
+    @Nullable
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Returns the full qualified class name.
+     *
+     * @return the full qualified class name, may be null.
+     */
+    @Nullable
+    public String getFullClassName() {
+        return fullClassName;
+    }
+
+    /**
+     * Returns the project name.
+     *
+     * @return the project name, may be null.
+     */
+    @Nullable
+    public String getProjectName() {
+        return projectName;
+    }
+
+    /**
+     * Creates the template variables of this descriptor.
+     *
+     * @return the variables.
+     */
+    @NotNull
+    TemplateVariables toVariables() {
+        return new TemplateVariables(fieldName, type, className, fullClassName, projectName);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Plain snapshot of a property type, the value of the template variable $field_type. Templates used to get the
+ * {@code PsiType} itself, so the snapshot offers the same properties: {@code $field_type.presentableText},
+ * {@code $field_type.canonicalText} and {@code $field_type.internalCanonicalText}, and renders a bare
+ * {@code $field_type} like the {@code PsiType} did. Unlike the {@code PsiType} it can be rendered without a read
+ * action and kept in caches without holding the PSI.
+ *
+ * @author Burt Parkers
+ */
+public final class PropertyType {
+
+    /** The prefix of {@code PsiType.toString()}. */
+    private static final String PSI_TYPE_PREFIX = "PsiType:";
+
+    /** The presentable text, e.g. List&lt;String&gt;. */
+    private final String presentableText;
+
+    /** The canonical text, e.g. java.util.List&lt;java.lang.String&gt;. */
+    private final String canonicalText;
+
+    /** The internal canonical text. */
+    private final String internalCanonicalText;
+
+    /** The text of a bare reference. */
+    private final String text;
+
+
+    /**
+     * Constructor.
+     *
+     * @param presentableText the presentable text.
+     * @param canonicalText the canonical text.
+     * @param internalCanonicalText the internal canonical text.
+     * @param text the text of a bare reference.
+     */
+    private PropertyType(@NotNull String presentableText, @NotNull String canonicalText,
+                         @NotNull String internalCanonicalText, @NotNull String text) {
+        this.presentableText = presentableText;
+        this.canonicalText = canonicalText;
+        this.internalCanonicalText = internalCanonicalText;
+        this.text = text;
+    }
+
+    /**
+     * Creates the snapshot of a {@code PsiType}, a bare reference renders like {@code PsiType.toString()}.
+     *
+     * @param presentableText the presentable text of the type.
+     * @param canonicalText the canonical text of the type.
+     * @param internalCanonicalText the internal canonical text of the type.
+     * @return the snapshot.
+     */
+    @NotNull
+    public static PropertyType of(@NotNull String presentableText, @NotNull String canonicalText,
+                                  @NotNull String internalCanonicalText) {
+        return new PropertyType(presentableText, canonicalText, internalCanonicalText,
+                PSI_TYPE_PREFIX + presentableText);
+    }
+
+    /**
+     * Creates a type from one text, used for all properties and for a bare reference.
+     *
+     * @param text the type text.
+     * @return the type.
+     */
+    @NotNull
+    public static PropertyType ofText(@NotNull String text) {
+        return new PropertyType(text, text, text, text);
+    }
+
+    /**
+     * Returns the presentable text.
+     *
+     * @return the presentable text.
+     */
+    @NotNull
+    public String getPresentableText() {
+        return presentableText;
+    }
+
+    /**
+     * Returns the canonical text.
+     *
+     * @return the canonical text.
+     */
+    @NotNull
+    public String getCanonicalText() {
+        return canonicalText;
+    }
+
+    /**
+     * Returns the internal canonical text.
+     *
+     * @return the internal canonical text.
+     */
+    @NotNull
+    public String getInternalCanonicalText() {
+        return internalCanonicalText;
+    }
+
+    /**
+     * Returns the number of characters of all texts, used to estimate the memory footprint.
+     *
+     * @return the length.
+     */
+    int length() {
+        return presentableText.length() + canonicalText.length() + internalCanonicalText.length() + text.length();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PropertyType)) {
+            return false;
+        }
+        PropertyType other = (PropertyType) o;
+        return text.equals(other.text) && canonicalText.equals(other.canonicalText)
+                && presentableText.equals(other.presentableText)
+                && internalCanonicalText.equals(other.internalCanonicalText);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = text.hashCode();
+        result = 31 * result + canonicalText.hashCode();
+        result = 31 * result + presentableText.hashCode();
+        result = 31 * result + internalCanonicalText.hashCode();
+        return result;
+    }
+
+    /**
+     * Returns the text of a bare reference.
+     *
+     * @return the text.
+     */
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,482 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of rendered comments. The key is the configuration name, the template and the values of the
+ * {@linkplain PropertyDescriptor}, so a changed template never returns an old comment. The cache is bounded by the
+ * estimated memory footprint of the cached texts.
+ * <p/>
+ * Lookups and insertions do not lock, so the workers of the {@linkplain ParallelRenderer} use the cache
+ * concurrently. Every lookup stamps the entry with {@linkplain System#nanoTime()}. When the footprint exceeds the
+ * capacity, one thread evicts the entries with the oldest stamps until the footprint is {@linkplain #EVICTION_TARGET}
+ * of the capacity, an approximate least recently used order. Footprint and counters are estimates while other
+ * threads change the cache.
+ *
+ * @author Burt Parkers
+ */
+public final class RenderedTextCache {
+
+    /** Default capacity in kilobytes. */
+    public static final int DEFAULT_CAPACITY_KB = 4096;
+
+    /** Estimated fixed size of an entry in bytes: the key, the map entry and two string headers. */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    /** Fraction of the capacity an eviction run frees the cache down to, so evictions are not run on every put. */
+    private static final double EVICTION_TARGET = 0.9;
+
+    /** The shared instance. */
+    private static final RenderedTextCache INSTANCE = new RenderedTextCache(DEFAULT_CAPACITY_KB * 1024L);
+
+    /** The cached texts. */
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<Key, Entry>(256);
+
+    /** Held by the thread running an eviction, other threads do not wait for it. */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /** The maximum footprint in bytes. */
+    private volatile long capacity;
+
+    /** The estimated footprint of all entries in bytes. */
+    private final AtomicLong footprint = new AtomicLong();
+
+    /** Number of lookups answered by the cache. */
+    private final AtomicLong hitCount = new AtomicLong();
+
+    /** Number of lookups which needed a rendering. */
+    private final AtomicLong missCount = new AtomicLong();
+
+    /** Number of entries evicted because of the capacity. */
+    private final AtomicLong evictionCount = new AtomicLong();
+
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the maximum footprint in bytes, 0 disables the cache.
+     */
+    RenderedTextCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the shared cache instance.
+     *
+     * @return the cache.
+     */
+    @NotNull
+    public static RenderedTextCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached text of a rendering.
+     *
+     * @param configName the configuration name.
+     * @param template the template.
+     * @param descriptor the documented property.
+     * @return the cached text or null if the rendering is not cached.
+     */
+    @Nullable
+    public String get(@NotNull String configName, @NotNull String template, @NotNull PropertyDescriptor descriptor) {
+        Entry entry = entries.get(new Key(configName, template, descriptor));
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        entry.accessStamp = System.nanoTime();
+        hitCount.incrementAndGet();
+        return entry.text;
+    }
+
+    /**
+     * Caches the text of a rendering, evicts the least recently used entries if the capacity is exceeded.
+     *
+     * @param configName the configuration name.
+     * @param template the template.
+     * @param descriptor the documented property.
+     * @param text the rendered text.
+     */
+    public void put(@NotNull String configName, @NotNull String template, @NotNull PropertyDescriptor descriptor,
+                    @NotNull String text) {
+        Key key = new Key(configName, template, descriptor);
+        Entry entry = new Entry(text, weigh(key, text), System.nanoTime());
+        if (entry.weight > capacity) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        long newFootprint = footprint.addAndGet(previous != null ? entry.weight - previous.weight : entry.weight);
+        if (newFootprint > capacity) {
+            evict();
+        }
+    }
+
+    /**
+     * Removes the texts rendered for a configuration, called when its template changes.
+     *
+     * @param configName the configuration name.
+     */
+    public void invalidate(@NotNull String configName) {
+        for (Map.Entry<Key, Entry> mapEntry : entries.entrySet()) {
+            if (mapEntry.getKey().configName.equals(configName)) {
+                remove(mapEntry.getKey(), mapEntry.getValue());
+            }
+        }
+    }
+
+    /** Removes all texts. The counters are not reset. */
+    public void clear() {
+        for (Map.Entry<Key, Entry> mapEntry : entries.entrySet()) {
+            remove(mapEntry.getKey(), mapEntry.getValue());
+        }
+    }
+
+    /** Resets the counters. */
+    public void resetStats() {
+        hitCount.set(0);
+        missCount.set(0);
+        evictionCount.set(0);
+    }
+
+    /**
+     * Changes the capacity, entries exceeding the new capacity are evicted.
+     *
+     * @param capacity the maximum footprint in bytes, 0 disables the cache.
+     */
+    public void setCapacity(long capacity) {
+        this.capacity = Math.max(0, capacity);
+        evict();
+    }
+
+    /**
+     * Returns the capacity.
+     *
+     * @return the maximum footprint in bytes.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the estimated memory footprint of the cached texts.
+     *
+     * @return the footprint in bytes.
+     */
+    public long getFootprint() {
+        return footprint.get();
+    }
+
+    /**
+     * Returns the number of cached texts.
+     *
+     * @return the number of entries.
+     */
+    public int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of cache hits.
+     *
+     * @return the hit count.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of cache misses.
+     *
+     * @return the miss count.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of entries evicted because of the capacity.
+     *
+     * @return the eviction count.
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Returns the ratio of hits to lookups.
+     *
+     * @return the hit rate between 0 and 1, 0 without lookups.
+     */
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long lookupCount = hits + missCount.get();
+        return lookupCount == 0 ? 0 : (double) hits / lookupCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f%% hits, %d entries, %d KB of %d KB, %d evictions", getHitRate() * 100,
+                entries.size(), footprint.get() / 1024, capacity / 1024, evictionCount.get());
+    }
+
+    /**
+     * Evicts the least recently used entries until the footprint is below the eviction target. Runs in the calling
+     * thread, unless another thread is already evicting.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long currentCapacity = capacity;
+            if (footprint.get() <= currentCapacity) {
+                return;
+            }
+            long target = (long) (currentCapacity * EVICTION_TARGET);
+            // the stamps are copied, lookups change them while sorting
+            List<Candidate> candidates = new ArrayList<Candidate>(entries.size());
+            for (Map.Entry<Key, Entry> mapEntry : entries.entrySet()) {
+                candidates.add(new Candidate(mapEntry.getKey(), mapEntry.getValue()));
+            }
+            Collections.sort(candidates);
+            Iterator<Candidate> iterator = candidates.iterator();
+            while (footprint.get() > target && iterator.hasNext()) {
+                Candidate candidate = iterator.next();
+                if (remove(candidate.key, candidate.entry)) {
+                    evictionCount.incrementAndGet();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes an entry if it was not replaced meanwhile and updates the footprint.
+     *
+     * @param key the key.
+     * @param entry the entry.
+     * @return true if the entry was removed, otherwise false.
+     */
+    private boolean remove(@NotNull Key key, @NotNull Entry entry) {
+        if (entries.remove(key, entry)) {
+            footprint.addAndGet(-entry.weight);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Estimates the footprint of an entry. The template is shared with the settings and not counted.
+     *
+     * @param key the key.
+     * @param text the rendered text.
+     * @return the estimated size in bytes.
+     */
+    private static long weigh(@NotNull Key key, @NotNull String text) {
+        return ENTRY_OVERHEAD + 2L * (text.length() + key.descriptorLength());
+    }
+
+    /**
+     * Cached text with its weight and last access.
+     */
+    private static final class Entry {
+
+        /** The rendered text. */
+        private final String text;
+
+        /** The estimated footprint in bytes. */
+        private final long weight;
+
+        /** The value of {@linkplain System#nanoTime()} at the last access, written without lock. */
+        private volatile long accessStamp;
+
+        /**
+         * Constructor.
+         *
+         * @param text the rendered text.
+         * @param weight the estimated footprint in bytes.
+         * @param accessStamp the value of {@linkplain System#nanoTime()} at the insertion.
+         */
+        Entry(@NotNull String text, long weight, long accessStamp) {
+            this.text = text;
+            this.weight = weight;
+            this.accessStamp = accessStamp;
+        }
+    }
+
+    /**
+     * Entry considered for eviction, ordered by the access stamp at the start of the eviction, the least recently
+     * used first.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+
+        /** The key. */
+        private final Key key;
+
+        /** The entry. */
+        private final Entry entry;
+
+        /** The access stamp of the entry when the eviction started. */
+        private final long accessStamp;
+
+        /**
+         * Constructor.
+         *
+         * @param key the key.
+         * @param entry the entry.
+         */
+        Candidate(@NotNull Key key, @NotNull Entry entry) {
+            this.key = key;
+            this.entry = entry;
+            this.accessStamp = entry.accessStamp;
+        }
+
+        public int compareTo(Candidate other) {
+            return accessStamp < other.accessStamp ? -1 : (accessStamp == other.accessStamp ? 0 : 1);
+        }
+    }
+
+    /**
+     * Key of a rendering. The template is compared by its hash first, the content only if the hashes match.
+     */
+    private static final class Key {
+
+        /** The configuration name. */
+        private final String configName;
+
+        /** The template. */
+        private final String template;
+
+        /** The documented property. */
+        private final PropertyDescriptor descriptor;
+
+        /** The hash code. */
+        private final int hash;
+
+        /**
+         * Constructor.
+         *
+         * @param configName the configuration name.
+         * @param template the template.
+         * @param descriptor the documented property.
+         */
+        Key(@NotNull String configName, @NotNull String template, @NotNull PropertyDescriptor descriptor) {
+            this.configName = configName;
+            this.template = template;
+            this.descriptor = descriptor;
+            int result = configName.hashCode();
+            result = 31 * result + template.hashCode();
+            result = 31 * result + hash(descriptor.getFieldName());
+            result = 31 * result + (descriptor.getType() != null ? descriptor.getType().hashCode() : 0);
+            result = 31 * result + hash(descriptor.getClassName());
+            result = 31 * result + hash(descriptor.getFullClassName());
+            result = 31 * result + hash(descriptor.getProjectName());
+            this.hash = result;
+        }
+
+        /**
+         * Returns the number of characters of the descriptor values.
+         *
+         * @return the length.
+         */
+        int descriptorLength() {
+            PropertyType type = descriptor.getType();
+            return length(descriptor.getFieldName()) + (type != null ? type.length() : 0)
+                    + length(descriptor.getClassName()) + length(descriptor.getFullClassName())
+                    + length(descriptor.getProjectName());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash
+                    && configName.equals(other.configName)
+                    && equal(descriptor.getFieldName(), other.descriptor.getFieldName())
+                    && (descriptor.getType() == null ? other.descriptor.getType() == null
+                            : descriptor.getType().equals(other.descriptor.getType()))
+                    && equal(descriptor.getClassName(), other.descriptor.getClassName())
+                    && equal(descriptor.getFullClassName(), other.descriptor.getFullClassName())
+                    && equal(descriptor.getProjectName(), other.descriptor.getProjectName())
+                    && template.equals(other.template);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * Null safe hash code.
+         *
+         * @param value the value.
+         * @return the hash code, 0 for null.
+         */
+        private static int hash(@Nullable String value) {
+            return value != null ? value.hashCode() : 0;
+        }
+
+        /**
+         * Null safe length.
+         *
+         * @param value the value.
+         * @return the length, 0 for null.
+         */
+        private static int length(@Nullable String value) {
+            return value != null ? value.length() : 0;
+        }
+
+        /**
+         * Null safe comparison.
+         *
+         * @param first the first value.
+         * @param second the second value.
+         * @return true if both values are null or equal.
+         */
+        private static boolean equal(@Nullable String first, @Nullable String second) {
+            return first == null ? second == null : first.equals(second);
+        }
+    }
+}
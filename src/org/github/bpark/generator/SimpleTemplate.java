@@ -0,0 +1,220 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renderer for templates without directives. Such a template is split into literal text and variable slots once,
+ * rendering appends the segments to one builder without velocity. Templates which might be rendered differently by
+ * velocity are rejected by {@linkplain #compile(String)} and have to be rendered with velocity.
+ *
+ * @author Burt Parkers
+ */
+final class SimpleTemplate {
+
+    /** Marker for literal segments. */
+    private static final int LITERAL = -1;
+
+    /** The segment texts, the literal text or the reference text of a variable. */
+    private final String[] texts;
+
+    /** The segment slots, {@linkplain #LITERAL} for literal text. */
+    private final int[] slots;
+
+    /** The length of all literal segments, used to size the builder. */
+    private final int literalLength;
+
+
+    /**
+     * Constructor.
+     *
+     * @param texts the segment texts.
+     * @param slots the segment slots.
+     * @param literalLength the length of all literal segments.
+     */
+    private SimpleTemplate(@NotNull String[] texts, @NotNull int[] slots, int literalLength) {
+        this.texts = texts;
+        this.slots = slots;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Compiles a template.
+     *
+     * @param template the template source.
+     * @return the compiled template, or null if the template needs velocity.
+     */
+    @Nullable
+    static SimpleTemplate compile(@NotNull String template) {
+        // directives, comments and escapes
+        if (template.indexOf('#') >= 0 || template.indexOf('\\') >= 0) {
+            return null;
+        }
+
+        List<String> texts = new ArrayList<String>();
+        List<Integer> slots = new ArrayList<Integer>();
+        StringBuilder literal = new StringBuilder();
+        int literalLength = 0;
+        int length = template.length();
+        int i = 0;
+        while (i < length) {
+            char c = template.charAt(i);
+            if (c != '$') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+
+            int start = i;
+            boolean formal = i + 1 < length && template.charAt(i + 1) == '{';
+            int nameStart = formal ? i + 2 : i + 1;
+            int nameEnd = nameStart;
+            if (nameEnd < length && isIdentifierStart(template.charAt(nameEnd))) {
+                nameEnd++;
+                while (nameEnd < length && isIdentifierPart(template.charAt(nameEnd))) {
+                    nameEnd++;
+                }
+            }
+
+            if (nameEnd == nameStart) {
+                // quiet references, $$, ${ without a name and a trailing $ are left to velocity
+                if (formal || nameEnd >= length
+                        || template.charAt(nameEnd) == '!' || template.charAt(nameEnd) == '$') {
+                    return null;
+                }
+                literal.append(c);
+                i++;
+                continue;
+            }
+
+            int end = nameEnd;
+            if (formal) {
+                if (end >= length || template.charAt(end) != '}') {
+                    return null;
+                }
+                end++;
+            }
+            if (end < length && !isPlainFollower(template, end)) {
+                return null;
+            }
+
+            String name = template.substring(nameStart, nameEnd);
+            if (name.indexOf('-') >= 0) {
+                return null;
+            }
+            String reference = template.substring(start, end);
+            int slot = TemplateVariables.getSlot(name);
+            if (slot < 0) {
+                literal.append(reference);
+            } else {
+                if (literal.length() > 0) {
+                    literalLength += literal.length();
+                    texts.add(literal.toString());
+                    slots.add(LITERAL);
+                    literal.setLength(0);
+                }
+                texts.add(reference);
+                slots.add(slot);
+            }
+            i = end;
+        }
+        if (literal.length() > 0) {
+            literalLength += literal.length();
+            texts.add(literal.toString());
+            slots.add(LITERAL);
+        }
+
+        int[] slotArray = new int[slots.size()];
+        for (int j = 0; j < slotArray.length; j++) {
+            slotArray[j] = slots.get(j);
+        }
+        return new SimpleTemplate(texts.toArray(new String[texts.size()]), slotArray, literalLength);
+    }
+
+    /**
+     * Renders the template. A null value renders the reference itself, like velocity does.
+     *
+     * @param variables the variables.
+     * @return the rendered text.
+     */
+    @NotNull
+    String render(@NotNull TemplateVariables variables) {
+        String[] values = new String[slots.length];
+        int length = literalLength;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != LITERAL) {
+                Object value = variables.getValue(slots[i]);
+                values[i] = value != null ? value.toString() : texts[i];
+                length += values[i].length();
+            }
+        }
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(slots[i] == LITERAL ? texts[i] : values[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Checks the character after a reference. Method calls, property access and index access need velocity.
+     *
+     * @param template the template.
+     * @param index the index after the reference.
+     * @return true if the reference ends here, otherwise false.
+     */
+    private static boolean isPlainFollower(@NotNull String template, int index) {
+        char c = template.charAt(index);
+        if (c == '(' || c == '[') {
+            return false;
+        }
+        return !(c == '.' && index + 1 < template.length() && isIdentifierStart(template.charAt(index + 1)));
+    }
+
+    /**
+     * Checks if a character can start a velocity identifier.
+     *
+     * @param c the character.
+     * @return true if the character starts an identifier.
+     */
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    /**
+     * Checks if a character can be part of a velocity identifier.
+     *
+     * @param c the character.
+     * @return true if the character is part of an identifier.
+     */
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || (c >= '0' && c <= '9') || c == '-';
+    }
+}
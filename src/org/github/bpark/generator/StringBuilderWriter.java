@@ -0,0 +1,95 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Writer;
+
+/**
+ * Unsynchronized writer backed by a {@linkplain StringBuilder}. Unlike {@linkplain java.io.StringWriter} the buffer
+ * is not synchronized and can be reset, so one instance per thread can be reused for rendering.
+ *
+ * @author Burt Parkers
+ */
+final class StringBuilderWriter extends Writer {
+
+    /** The buffer. */
+    private final StringBuilder builder;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the initial buffer capacity.
+     */
+    StringBuilderWriter(int capacity) {
+        this.builder = new StringBuilder(capacity);
+    }
+
+    @Override
+    public void write(int c) {
+        builder.append((char) c);
+    }
+
+    @Override
+    public void write(@NotNull char[] cbuf, int off, int len) {
+        builder.append(cbuf, off, len);
+    }
+
+    @Override
+    public void write(@NotNull String str) {
+        builder.append(str);
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) {
+        builder.append(str, off, off + len);
+    }
+
+    @Override
+    public Writer append(CharSequence csq) {
+        builder.append(csq);
+        return this;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /** Clears the buffer, the capacity is kept. */
+    void reset() {
+        builder.setLength(0);
+    }
+
+    @Override
+    public String toString() {
+        return builder.toString();
+    }
+}
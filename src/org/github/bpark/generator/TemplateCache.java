@@ -0,0 +1,259 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.context.Context;
+import org.apache.velocity.context.InternalContextAdapterImpl;
+import org.apache.velocity.exception.ParseErrorException;
+import org.apache.velocity.runtime.RuntimeServices;
+import org.apache.velocity.runtime.parser.ParseException;
+import org.apache.velocity.runtime.parser.node.SimpleNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache for parsed velocity templates. A template is parsed once per configuration name and content, the node tree
+ * is reused for every following rendering. Templates without directives are compiled to a {@linkplain SimpleTemplate}
+ * and rendered without velocity. Changing the template of a configuration invalidates its entry.
+ *
+ * @author Burt Parkers
+ */
+public final class TemplateCache {
+
+    /** The initial capacity of the per thread render buffers. */
+    private static final int WRITER_CAPACITY = 256;
+
+    /** The shared instance. */
+    private static final TemplateCache INSTANCE = new TemplateCache(null);
+
+    /** Render buffer, one per thread. */
+    private static final ThreadLocal<StringBuilderWriter> WRITERS = new ThreadLocal<StringBuilderWriter>() {
+        @Override
+        protected StringBuilderWriter initialValue() {
+            return new StringBuilderWriter(WRITER_CAPACITY);
+        }
+    };
+
+    /** The runtime for parsing, null for the shared runtime of the {@linkplain VelocityEngineFactory}. */
+    private final RuntimeServices runtimeServices;
+
+    /** The parsed templates, the key is the configuration name. */
+    private final ConcurrentMap<String, CompiledTemplate> templates = new ConcurrentHashMap<String, CompiledTemplate>();
+
+    /** Number of lookups answered by the cache. */
+    private final AtomicLong hitCount = new AtomicLong();
+
+    /** Number of lookups which needed a template parse. */
+    private final AtomicLong missCount = new AtomicLong();
+
+    /** Number of renderings without velocity. */
+    private final AtomicLong simpleRenderCount = new AtomicLong();
+
+
+    /**
+     * Constructor, the shared instance uses the shared runtime, other instances may use their own runtime.
+     *
+     * @param runtimeServices the runtime for parsing, null for the shared runtime.
+     */
+    TemplateCache(@Nullable RuntimeServices runtimeServices) {
+        this.runtimeServices = runtimeServices;
+    }
+
+    /**
+     * Returns the shared cache instance.
+     *
+     * @return the cache.
+     */
+    @NotNull
+    public static TemplateCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Renders a template with the given variables. The template is parsed only if there is no cached template for
+     * the configuration name and template content.
+     *
+     * @param configName the configuration name.
+     * @param template the template content.
+     * @param variables the template variables.
+     * @return the rendered text.
+     */
+    @NotNull
+    public String render(@NotNull String configName, @NotNull String template, @NotNull TemplateVariables variables) {
+        CompiledTemplate compiledTemplate = getTemplate(configName, template);
+        if (compiledTemplate.simpleTemplate != null) {
+            simpleRenderCount.incrementAndGet();
+            return compiledTemplate.simpleTemplate.render(variables);
+        }
+        return compiledTemplate.render(variables.toContext());
+    }
+
+    /**
+     * Removes the parsed template of a configuration.
+     *
+     * @param configName the configuration name.
+     */
+    public void invalidate(@NotNull String configName) {
+        templates.remove(configName);
+    }
+
+    /** Removes all parsed templates. The counters are not reset. */
+    public void clear() {
+        templates.clear();
+    }
+
+    /**
+     * Returns the number of cache hits.
+     *
+     * @return the hit count.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of cache misses, equals the number of template parses.
+     *
+     * @return the miss count.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of renderings without velocity.
+     *
+     * @return the number of renderings of simple templates.
+     */
+    public long getSimpleRenderCount() {
+        return simpleRenderCount.get();
+    }
+
+    /**
+     * Returns the cached template or parses and caches a new one.
+     *
+     * @param configName the configuration name.
+     * @param template the template content.
+     * @return the parsed template.
+     */
+    @NotNull
+    private CompiledTemplate getTemplate(@NotNull String configName, @NotNull String template) {
+        CompiledTemplate compiledTemplate = templates.get(configName);
+        if (compiledTemplate != null && compiledTemplate.matches(template)) {
+            hitCount.incrementAndGet();
+            return compiledTemplate;
+        }
+        missCount.incrementAndGet();
+        compiledTemplate = new CompiledTemplate(configName, template,
+                runtimeServices != null ? runtimeServices : VelocityEngineFactory.getRuntimeServices());
+        templates.put(configName, compiledTemplate);
+        return compiledTemplate;
+    }
+
+    /**
+     * Parsed template, holds the simple template or the initialized node tree and the source it was created from.
+     */
+    private static final class CompiledTemplate {
+
+        /** The template name, used for logging. */
+        private final String name;
+
+        /** The template source. */
+        private final String source;
+
+        /** Hash of the template source. */
+        private final int sourceHash;
+
+        /** The template for rendering without velocity, null if the template needs velocity. */
+        private final SimpleTemplate simpleTemplate;
+
+        /** The initialized node tree, null for simple templates. */
+        private final SimpleNode node;
+
+        /**
+         * Constructor, compiles a simple template or parses and initializes the velocity template.
+         *
+         * @param name the template name.
+         * @param source the template source.
+         * @param runtimeServices the runtime for parsing.
+         */
+        CompiledTemplate(@NotNull String name, @NotNull String source, @NotNull RuntimeServices runtimeServices) {
+            this.name = name;
+            this.source = source;
+            this.sourceHash = source.hashCode();
+            this.simpleTemplate = SimpleTemplate.compile(source);
+            if (simpleTemplate != null) {
+                node = null;
+                return;
+            }
+            try {
+                node = runtimeServices.parse(new StringReader(source), name);
+            } catch (ParseException e) {
+                throw new ParseErrorException(e, name);
+            }
+            node.init(new InternalContextAdapterImpl(new VelocityContext()), runtimeServices);
+        }
+
+        /**
+         * Checks if this template was created from the given source.
+         *
+         * @param template the template source.
+         * @return true if the source is the same, otherwise false.
+         */
+        boolean matches(@NotNull String template) {
+            return sourceHash == template.hashCode() && source.equals(template);
+        }
+
+        /**
+         * Renders the node tree into the buffer of the current thread.
+         *
+         * @param context the velocity context.
+         * @return the rendered text.
+         */
+        @NotNull
+        String render(@NotNull Context context) {
+            StringBuilderWriter writer = WRITERS.get();
+            writer.reset();
+            InternalContextAdapterImpl internalContext = new InternalContextAdapterImpl(context);
+            internalContext.pushCurrentTemplateName(name);
+            try {
+                node.render(internalContext, writer);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                internalContext.popCurrentTemplateName();
+            }
+            return writer.toString();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import org.apache.velocity.exception.ParseErrorException;
+import org.apache.velocity.exception.VelocityException;
+import org.apache.velocity.runtime.parser.ParseException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Checks templates without PSI or project: the velocity syntax of the template and the javadoc structure of the
+ * template rendered for the {@linkplain PropertyDescriptor#SAMPLE}. The rendered comment must start with
+ * <code>/**</code>, end with the only <code>*&#47;</code> and contain well-formed block and inline tags. The results
+ * are cached by template content, so an unchanged template is never checked twice. Safe for concurrent callers.
+ *
+ * @author Burt Parkers
+ */
+public final class TemplateValidator {
+
+    /** The maximum number of cached results. */
+    private static final int CACHE_SIZE = 64;
+
+    /** The template name used in error messages. */
+    private static final String TEMPLATE_NAME = "template";
+
+    /** The comment start. */
+    private static final String COMMENT_START = "/**";
+
+    /** The comment end. */
+    private static final String COMMENT_END = "*/";
+
+    /** The cached results, the key is the template content, the least recently used result is removed first. */
+    private static final Map<String, ValidationResult> RESULTS =
+            new LinkedHashMap<String, ValidationResult>(CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ValidationResult> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+
+    /** Prevents util class instantiation. */
+    private TemplateValidator() {
+    }
+
+    /**
+     * Validates a template, the result is cached.
+     *
+     * @param template the template.
+     * @return the result.
+     */
+    @NotNull
+    public static ValidationResult validate(@NotNull String template) {
+        synchronized (RESULTS) {
+            ValidationResult result = RESULTS.get(template);
+            if (result != null) {
+                return result;
+            }
+        }
+        ValidationResult result = checkSyntax(template);
+        if (result.isValid()) {
+            result = checkStructure(template);
+        }
+        synchronized (RESULTS) {
+            RESULTS.put(template, result);
+        }
+        return result;
+    }
+
+    /**
+     * Parses a template with velocity.
+     *
+     * @param template the template.
+     * @return the result, errors have the position reported by the parser.
+     */
+    @NotNull
+    private static ValidationResult checkSyntax(@NotNull String template) {
+        try {
+            VelocityEngineFactory.getRuntimeServices().parse(new StringReader(template), TEMPLATE_NAME);
+            return ValidationResult.VALID;
+        } catch (ParseException e) {
+            ParseErrorException parseError = new ParseErrorException(e, TEMPLATE_NAME);
+            return ValidationResult.error(firstLine(parseError.getMessage()), parseError.getLineNumber(),
+                    parseError.getColumnNumber());
+        } catch (VelocityException e) {
+            return ValidationResult.error(firstLine(e.getMessage()), 0, 0);
+        }
+    }
+
+    /**
+     * Renders the template for the sample property and checks the javadoc structure. The reported positions are
+     * positions inside the rendered comment, for templates without directives they are the same as in the template.
+     *
+     * @param template the template, the velocity syntax must be valid.
+     * @return the result.
+     */
+    @NotNull
+    private static ValidationResult checkStructure(@NotNull String template) {
+        String commentText;
+        try {
+            commentText = DocRenderer.renderSample(template);
+        } catch (VelocityException e) {
+            return ValidationResult.error(firstLine(e.getMessage()), 0, 0);
+        }
+
+        String[] lines = commentText.split("\r?\n", -1);
+        int firstLine = 0;
+        while (firstLine < lines.length && lines[firstLine].trim().length() == 0) {
+            firstLine++;
+        }
+        int lastLine = lines.length - 1;
+        while (lastLine > firstLine && lines[lastLine].trim().length() == 0) {
+            lastLine--;
+        }
+        if (firstLine == lines.length || !lines[firstLine].trim().startsWith(COMMENT_START)) {
+            return ValidationResult.error("The comment must start with " + COMMENT_START,
+                    Math.min(firstLine, lines.length - 1) + 1, 1);
+        }
+        if (!lines[lastLine].trim().endsWith(COMMENT_END)) {
+            return ValidationResult.error("The comment must end with " + COMMENT_END, lastLine + 1,
+                    lines[lastLine].length() + 1);
+        }
+
+        for (int i = firstLine; i <= lastLine; i++) {
+            String line = lines[i];
+            int contentStart = i == firstLine ? line.indexOf(COMMENT_START) + COMMENT_START.length() : 0;
+            int contentEnd = i == lastLine ? line.lastIndexOf(COMMENT_END) : line.length();
+            if (contentEnd < contentStart) {
+                return ValidationResult.error("The comment must end with " + COMMENT_END, i + 1, line.length() + 1);
+            }
+            int nestedEnd = line.substring(contentStart, contentEnd).indexOf(COMMENT_END);
+            if (nestedEnd >= 0) {
+                return ValidationResult.error("The comment is closed before its end", i + 1,
+                        contentStart + nestedEnd + 1);
+            }
+            ValidationResult result = checkTags(line, contentStart, contentEnd, i + 1);
+            if (!result.isValid()) {
+                return result;
+            }
+        }
+        return ValidationResult.VALID;
+    }
+
+    /**
+     * Checks the block and inline tags of a comment line. A block tag starts the content of the line after the
+     * leading asterisk, its name must be an identifier and tags with parameter need the parameter. Inline tags must be
+     * closed on the same line.
+     *
+     * @param line the line.
+     * @param contentStart the start of the comment content in the line.
+     * @param contentEnd the end of the comment content in the line.
+     * @param lineNumber the line number, starting with 1.
+     * @return the result.
+     */
+    @NotNull
+    private static ValidationResult checkTags(@NotNull String line, int contentStart, int contentEnd,
+                                              int lineNumber) {
+        int position = contentStart;
+        while (position < contentEnd && Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        if (position < contentEnd && line.charAt(position) == '*') {
+            position++;
+            while (position < contentEnd && Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+        }
+        if (position < contentEnd && line.charAt(position) == '@') {
+            int nameEnd = identifierEnd(line, position + 1, contentEnd);
+            String tagName = line.substring(position + 1, nameEnd);
+            if (tagName.length() == 0 || (nameEnd < contentEnd && !Character.isWhitespace(line.charAt(nameEnd)))) {
+                return ValidationResult.error("Malformed tag", lineNumber, position + 1);
+            }
+            boolean needsParameter = "param".equals(tagName) || "throws".equals(tagName)
+                    || "exception".equals(tagName);
+            if (needsParameter && line.substring(nameEnd, contentEnd).trim().length() == 0) {
+                return ValidationResult.error("The tag @" + tagName + " needs a name", lineNumber, position + 1);
+            }
+        }
+
+        int inlineStart = line.indexOf("{@", contentStart);
+        while (inlineStart >= 0 && inlineStart < contentEnd) {
+            int nameEnd = identifierEnd(line, inlineStart + 2, contentEnd);
+            int inlineEnd = line.indexOf('}', inlineStart);
+            if (nameEnd == inlineStart + 2 || inlineEnd < 0 || inlineEnd >= contentEnd) {
+                return ValidationResult.error("Malformed inline tag", lineNumber, inlineStart + 1);
+            }
+            inlineStart = line.indexOf("{@", inlineEnd);
+        }
+        return ValidationResult.VALID;
+    }
+
+    /**
+     * Returns the end of an identifier.
+     *
+     * @param line the line.
+     * @param start the start of the identifier.
+     * @param end the end of the searched range.
+     * @return the index after the last identifier character, start if there is no identifier.
+     */
+    private static int identifierEnd(@NotNull String line, int start, int end) {
+        int position = start;
+        while (position < end && Character.isJavaIdentifierPart(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Returns the first line of a message, the parser appends the list of expected tokens.
+     *
+     * @param message the message, may be null.
+     * @return the first line.
+     */
+    @NotNull
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "Invalid template";
+        }
+        int lineBreak = message.indexOf('\n');
+        return lineBreak >= 0 ? message.substring(0, lineBreak).trim() : message;
+    }
+}
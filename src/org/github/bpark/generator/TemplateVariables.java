@@ -0,0 +1,100 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import org.apache.velocity.VelocityContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The variables available in a template. The values are kept as objects, because velocity renders them with
+ * {@linkplain Object#toString()} and a null value renders the reference itself.
+ *
+ * @author Burt Parkers
+ */
+public final class TemplateVariables {
+
+    /** The variable names, the index is the slot of the variable. */
+    private static final String[] NAMES = {"field", "field_type", "class_name", "full_class_name", "project_name"};
+
+    /** The values, the index is the slot of the variable. */
+    private final Object[] values;
+
+
+    /**
+     * Constructor.
+     *
+     * @param field the field name.
+     * @param fieldType the field type.
+     * @param className the class name.
+     * @param fullClassName the full qualified class name.
+     * @param projectName the project name.
+     */
+    public TemplateVariables(@Nullable Object field, @Nullable Object fieldType, @Nullable Object className,
+                             @Nullable Object fullClassName, @Nullable Object projectName) {
+        this.values = new Object[] {field, fieldType, className, fullClassName, projectName};
+    }
+
+    /**
+     * Returns the slot of a variable.
+     *
+     * @param name the variable name.
+     * @return the slot, or -1 if there is no such variable.
+     */
+    static int getSlot(@NotNull String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value of a slot.
+     *
+     * @param slot the slot.
+     * @return the value, may be null.
+     */
+    @Nullable
+    Object getValue(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Creates a velocity context containing the variables.
+     *
+     * @return the context.
+     */
+    @NotNull
+    VelocityContext toContext() {
+        VelocityContext velocityContext = new VelocityContext();
+        for (int i = 0; i < NAMES.length; i++) {
+            velocityContext.put(NAMES[i], values[i]);
+        }
+        return velocityContext;
+    }
+}
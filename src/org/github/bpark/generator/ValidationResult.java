@@ -0,0 +1,122 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.generator;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable result of a template validation. An error has a message and, if known, the line and column of the
+ * error inside the template.
+ *
+ * @author Burt Parkers
+ */
+public final class ValidationResult {
+
+    /** The result of a valid template. */
+    public static final ValidationResult VALID = new ValidationResult(null, 0, 0);
+
+    /** The error message, null if the template is valid. */
+    private final String message;
+
+    /** The line of the error, starting with 1, 0 if unknown. */
+    private final int line;
+
+    /** The column of the error, starting with 1, 0 if unknown. */
+    private final int column;
+
+
+    /**
+     * Constructor.
+     *
+     * @param message the error message, null if the template is valid.
+     * @param line the line of the error, starting with 1, 0 if unknown.
+     * @param column the column of the error, starting with 1, 0 if unknown.
+     */
+    private ValidationResult(@Nullable String message, int line, int column) {
+        this.message = message;
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Creates an error result.
+     *
+     * @param message the error message.
+     * @param line the line of the error, starting with 1, 0 if unknown.
+     * @param column the column of the error, starting with 1, 0 if unknown.
+     * @return the result.
+     */
+    @NotNull
+    public static ValidationResult error(@NotNull String message, int line, int column) {
+        return new ValidationResult(message, line, column);
+    }
+
+    /**
+     * Returns the validation status.
+     *
+     * @return true if the template is valid, otherwise false.
+     */
+    public boolean isValid() {
+        return message == null;
+    }
+
+    /**
+     * Returns the error message.
+     *
+     * @return the message, null if the template is valid.
+     */
+    @Nullable
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns the line of the error.
+     *
+     * @return the line, starting with 1, 0 if unknown.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Returns the column of the error.
+     *
+     * @return the column, starting with 1, 0 if unknown.
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    @Override
+    public String toString() {
+        if (isValid()) {
+            return "Template is valid";
+        }
+        return line > 0 ? "Line " + line + ", column " + column + ": " + message : message;
+    }
+}
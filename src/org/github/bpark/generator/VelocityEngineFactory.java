@@ -27,19 +27,18 @@ package org.github.bpark.generator;
 
 import org.apache.commons.collections.ExtendedProperties;
 import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.apache.velocity.runtime.RuntimeServices;
 import org.apache.velocity.runtime.log.SimpleLog4JLogSystem;
 
 /**
- * Factory to create a velocity engine.
+ * Factory to create a velocity engine. The shared engine and runtime are created lazily and are safe for concurrent
+ * callers, each of them is initialized exactly once by the class loader.
  *
  * @author Burt Parkers
  */
 public final class VelocityEngineFactory {
 
-    /** The engine. */
-    private static VelocityEngine engine;
-
-
     /** Private constructor. */
     private VelocityEngineFactory() {
     }
@@ -50,15 +49,67 @@ public final class VelocityEngineFactory {
      * @return the velocity engine.
      */
     public static VelocityEngine getVelocityEngine() {
-        if (engine == null) {
-            ExtendedProperties prop = new ExtendedProperties();
-            prop.addProperty(VelocityEngine.RUNTIME_LOG_LOGSYSTEM_CLASS, SimpleLog4JLogSystem.class.getName());
-            prop.addProperty("runtime.log.logsystem.log4j.category", "GenerateToString");
-            engine = new VelocityEngine();
-            engine.setExtendedProperties(prop);
+        return EngineHolder.ENGINE;
+    }
+
+    /**
+     * Creates the velocity runtime services, or returns an existing instance. The runtime is configured like the
+     * engine and is used to parse templates once and render the resulting node trees many times.
+     *
+     * @return the runtime services.
+     */
+    public static RuntimeServices getRuntimeServices() {
+        return RuntimeHolder.RUNTIME;
+    }
+
+    /**
+     * Creates new velocity runtime services, configured like the shared runtime. Used where the shared runtime must
+     * not be reused, e.g. to measure a cold engine.
+     *
+     * @return the initialized runtime services.
+     */
+    public static RuntimeInstance createRuntimeServices() {
+        RuntimeInstance runtimeInstance = new RuntimeInstance();
+        runtimeInstance.setConfiguration(createProperties());
+        runtimeInstance.init();
+        return runtimeInstance;
+    }
+
+    /**
+     * Creates the velocity configuration.
+     *
+     * @return the configuration properties.
+     */
+    private static ExtendedProperties createProperties() {
+        ExtendedProperties prop = new ExtendedProperties();
+        prop.addProperty(VelocityEngine.RUNTIME_LOG_LOGSYSTEM_CLASS, SimpleLog4JLogSystem.class.getName());
+        prop.addProperty("runtime.log.logsystem.log4j.category", "GenerateToString");
+        return prop;
+    }
+
+    /** Holder of the shared engine, initialized on the first access. */
+    private static final class EngineHolder {
+
+        /** The engine. */
+        private static final VelocityEngine ENGINE = createEngine();
+
+        /**
+         * Creates the engine.
+         *
+         * @return the initialized engine.
+         */
+        private static VelocityEngine createEngine() {
+            VelocityEngine engine = new VelocityEngine();
+            engine.setExtendedProperties(createProperties());
             engine.init();
+            return engine;
         }
+    }
+
+    /** Holder of the shared runtime, initialized on the first access. */
+    private static final class RuntimeHolder {
 
-        return engine;
+        /** The runtime used for parsing and rendering cached templates. */
+        private static final RuntimeInstance RUNTIME = createRuntimeServices();
     }
 }
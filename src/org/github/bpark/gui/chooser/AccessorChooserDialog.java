@@ -0,0 +1,238 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.gui.chooser;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.util.Computable;
+import com.intellij.psi.PsiMethod;
+import com.intellij.ui.ColoredListCellRenderer;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.ui.components.JBList;
+import com.intellij.ui.components.JBScrollPane;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dialog for choosing the accessors to document. The accessors are loaded in the background while the dialog is
+ * already showing, the list paints only the visible rows, so classes with thousands of accessors open immediately.
+ * By default only the undocumented accessors are listed, their number is computed once with the list.
+ *
+ * @author Burt Parkers
+ */
+public class AccessorChooserDialog extends DialogWrapper {
+
+    /** The logger. */
+    private static final Logger LOG = Logger.getInstance("#" + AccessorChooserDialog.class.getName());
+
+    /** Fixed height of a row, so the list does not measure every row. */
+    private static final int ROW_HEIGHT = 20;
+
+    /** The header, e.g. additional options. */
+    private final JComponent header;
+
+    /** True to show the class of each accessor. */
+    private final boolean showClassNames;
+
+    /** The model of the list. */
+    private final AccessorListModel listModel = new AccessorListModel();
+
+    /** The list. */
+    private final JBList list = new JBList(listModel);
+
+    /** Check box of the undocumented filter. */
+    private final JCheckBox undocumentedCheckBox = new JCheckBox("Undocumented only", true);
+
+    /** All accessors, empty until loaded. */
+    private List<AccessorItem> allItems = Collections.emptyList();
+
+    /** The undocumented accessors, empty until loaded. */
+    private List<AccessorItem> undocumentedItems = Collections.emptyList();
+
+
+    /**
+     * Constructor.
+     *
+     * @param project the project.
+     * @param header the header, e.g. additional options, may be null.
+     * @param showClassNames true to show the class of each accessor, for accessors of several classes.
+     */
+    public AccessorChooserDialog(@NotNull Project project, @Nullable JComponent header, boolean showClassNames) {
+        super(project, true);
+        this.header = header;
+        this.showClassNames = showClassNames;
+        setTitle("Generate JavaDoc");
+        setOKActionEnabled(false);
+        init();
+    }
+
+    /**
+     * Loads the accessors on a pooled thread. The loader is called inside a read action, the list is filled
+     * afterwards in the event dispatch thread. If the loader fails, the error is shown in the empty list.
+     *
+     * @param loader computes the accessors.
+     */
+    public void load(@NotNull final Computable<List<PsiMethod>> loader) {
+        list.getEmptyText().setText("Loading accessors...");
+        ApplicationManager.getApplication().executeOnPooledThread(new Runnable() {
+            public void run() {
+                List<AccessorItem> loadedItems = null;
+                String loadError = null;
+                try {
+                    loadedItems = ApplicationManager.getApplication().runReadAction(
+                            new Computable<List<AccessorItem>>() {
+                                public List<AccessorItem> compute() {
+                                    List<AccessorItem> items = new ArrayList<AccessorItem>();
+                                    for (PsiMethod psiMethod : loader.compute()) {
+                                        if (psiMethod.isValid()) {
+                                            items.add(new AccessorItem(psiMethod));
+                                        }
+                                    }
+                                    return items;
+                                }
+                            });
+                } catch (RuntimeException e) {
+                    LOG.error("Loading the accessors failed", e);
+                    loadError = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                }
+                final List<AccessorItem> items = loadedItems;
+                final String error = loadError;
+                ApplicationManager.getApplication().invokeLater(new Runnable() {
+                    public void run() {
+                        if (isDisposed()) {
+                            return;
+                        }
+                        if (items != null) {
+                            setItems(items);
+                        } else {
+                            list.getEmptyText().setText("Loading accessors failed: " + error,
+                                    SimpleTextAttributes.ERROR_ATTRIBUTES);
+                        }
+                    }
+                }, ModalityState.any());
+            }
+        });
+    }
+
+    /**
+     * Returns the selected accessors in list order.
+     *
+     * @return the selected accessors.
+     */
+    @NotNull
+    public List<PsiMethod> getSelectedMethods() {
+        List<PsiMethod> selectedMethods = new ArrayList<PsiMethod>();
+        ListSelectionModel selectionModel = list.getSelectionModel();
+        int maxIndex = Math.min(selectionModel.getMaxSelectionIndex(), listModel.getSize() - 1);
+        for (int i = Math.max(0, selectionModel.getMinSelectionIndex()); i <= maxIndex; i++) {
+            if (selectionModel.isSelectedIndex(i)) {
+                selectedMethods.add(listModel.getElementAt(i).getMethod());
+            }
+        }
+        return selectedMethods;
+    }
+
+    @Override
+    protected JComponent createNorthPanel() {
+        JPanel northPanel = new JPanel(new BorderLayout());
+        if (header != null) {
+            northPanel.add(header, BorderLayout.NORTH);
+        }
+        undocumentedCheckBox.setEnabled(false);
+        undocumentedCheckBox.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                showItems();
+            }
+        });
+        northPanel.add(undocumentedCheckBox, BorderLayout.SOUTH);
+        return northPanel;
+    }
+
+    @Override
+    protected JComponent createCenterPanel() {
+        list.setFixedCellHeight(ROW_HEIGHT);
+        list.setCellRenderer(new ColoredListCellRenderer() {
+            @Override
+            protected void customizeCellRenderer(JList list, Object value, int index, boolean selected,
+                                                 boolean hasFocus) {
+                AccessorItem item = (AccessorItem) value;
+                append(item.getSignature(), item.isDocumented() ? SimpleTextAttributes.GRAYED_ATTRIBUTES
+                        : SimpleTextAttributes.REGULAR_ATTRIBUTES);
+                if (showClassNames && item.getClassName() != null) {
+                    append("  " + item.getClassName(), SimpleTextAttributes.GRAYED_ITALIC_ATTRIBUTES);
+                }
+            }
+        });
+        JBScrollPane scrollPane = new JBScrollPane(list);
+        scrollPane.setPreferredSize(new Dimension(400, 400));
+        return scrollPane;
+    }
+
+    @Override
+    public JComponent getPreferredFocusedComponent() {
+        return list;
+    }
+
+    /**
+     * Stores the loaded accessors, counts the undocumented accessors and shows the list.
+     *
+     * @param items the loaded accessors.
+     */
+    private void setItems(@NotNull List<AccessorItem> items) {
+        List<AccessorItem> undocumented = new ArrayList<AccessorItem>();
+        for (AccessorItem item : items) {
+            if (!item.isDocumented()) {
+                undocumented.add(item);
+            }
+        }
+        allItems = items;
+        undocumentedItems = undocumented;
+        undocumentedCheckBox.setText("Undocumented only (" + undocumented.size() + " of " + items.size() + ")");
+        undocumentedCheckBox.setEnabled(true);
+        list.getEmptyText().setText("No accessors found");
+        setOKActionEnabled(true);
+        showItems();
+    }
+
+    /** Shows all or only the undocumented accessors, depending on the filter, all shown accessors are selected. */
+    private void showItems() {
+        listModel.setItems(undocumentedCheckBox.isSelected() ? undocumentedItems : allItems);
+        if (listModel.getSize() > 0) {
+            list.setSelectionInterval(0, listModel.getSize() - 1);
+        }
+    }
+}
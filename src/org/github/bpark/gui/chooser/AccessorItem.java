@@ -0,0 +1,131 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.gui.chooser;
+
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiParameter;
+import com.intellij.psi.PsiType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Entry of the {@linkplain AccessorChooserDialog}. The texts are computed once in the background, so painting a cell
+ * does not access the PSI.
+ *
+ * @author Burt Parkers
+ */
+final class AccessorItem {
+
+    /** The accessor. */
+    private final PsiMethod method;
+
+    /** The signature, e.g. {@code getName(): String}. */
+    private final String signature;
+
+    /** The name of the containing class. */
+    private final String className;
+
+    /** True if the accessor has a doc comment. */
+    private final boolean documented;
+
+
+    /**
+     * Constructor, reads the texts of the accessor. Must be called inside a read action.
+     *
+     * @param method the accessor.
+     */
+    AccessorItem(@NotNull PsiMethod method) {
+        this.method = method;
+        this.signature = createSignature(method);
+        PsiClass containingClass = method.getContainingClass();
+        this.className = containingClass != null ? containingClass.getName() : null;
+        this.documented = method.getDocComment() != null;
+    }
+
+    /**
+     * Returns the accessor.
+     *
+     * @return the accessor.
+     */
+    @NotNull
+    PsiMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the signature.
+     *
+     * @return the signature.
+     */
+    @NotNull
+    String getSignature() {
+        return signature;
+    }
+
+    /**
+     * Returns the name of the containing class.
+     *
+     * @return the class name, null for anonymous classes.
+     */
+    @Nullable
+    String getClassName() {
+        return className;
+    }
+
+    /**
+     * Returns the documentation state.
+     *
+     * @return true if the accessor has a doc comment, otherwise false.
+     */
+    boolean isDocumented() {
+        return documented;
+    }
+
+    /**
+     * Creates the signature of a method with the presentable parameter and return types.
+     *
+     * @param method the method.
+     * @return the signature.
+     */
+    @NotNull
+    private static String createSignature(@NotNull PsiMethod method) {
+        StringBuilder builder = new StringBuilder(method.getName()).append('(');
+        PsiParameter[] parameters = method.getParameterList().getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(parameters[i].getType().getPresentableText());
+        }
+        builder.append(')');
+        PsiType returnType = method.getReturnType();
+        if (returnType != null && returnType != PsiType.VOID) {
+            builder.append(": ").append(returnType.getPresentableText());
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.gui.chooser;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * List model of the {@linkplain AccessorChooserDialog}, backed by an immutable list of accessors.
+ *
+ * @author Burt Parkers
+ */
+class AccessorListModel extends AbstractListModel {
+
+    /** The shown accessors. */
+    private List<AccessorItem> items = Collections.emptyList();
+
+
+    /**
+     * Replaces the shown accessors.
+     *
+     * @param items the accessors.
+     */
+    void setItems(@NotNull List<AccessorItem> items) {
+        int oldSize = this.items.size();
+        this.items = Collections.emptyList();
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        this.items = items;
+        if (!items.isEmpty()) {
+            fireIntervalAdded(this, 0, items.size() - 1);
+        }
+    }
+
+    public int getSize() {
+        return items.size();
+    }
+
+    public AccessorItem getElementAt(int index) {
+        return items.get(index);
+    }
+}
@@ -25,15 +25,30 @@
 
 package org.github.bpark.gui.configuration;
 
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
 import com.intellij.openapi.options.Configurable;
 import com.intellij.openapi.options.ConfigurationException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.ui.DocumentAdapter;
+import com.intellij.util.Alarm;
 import org.github.bpark.config.GetterDocConfig;
 import org.github.bpark.config.SetterDocConfig;
+import org.github.bpark.generator.TemplateValidator;
+import org.github.bpark.generator.ValidationResult;
 import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultHighlighter;
+import javax.swing.text.Highlighter;
+import java.awt.*;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -51,12 +66,20 @@ public class JavaDocConfigurable implements Configurable {
         "the full velocity template language to modify the javadoc template. Here is a list of the defined " +
         "variables:\n\n" +
         "$field - the field name\n" +
-        "$field_type - the field type\n" +
+        "$field_type - the field type, use $field_type.presentableText for the short name or " +
+        "$field_type.canonicalText for the full qualified name\n" +
         "$class_name - the class name\n" +
         "$full_class_name - the full qualified class name\n" +
         "$project_name - the project name\n\n" +
         "Note, the comment will be auto-formatted with your current formatting settings.";
 
+    /** Delay between the last keystroke and the validation in milliseconds. */
+    private static final int VALIDATION_DELAY = 300;
+
+    /** Paints the position of a syntax error. */
+    private static final Highlighter.HighlightPainter ERROR_PAINTER =
+            new DefaultHighlighter.DefaultHighlightPainter(new Color(255, 200, 200));
+
     /** The main panel. */
     private JPanel mainPanel;
     /** JList with the specific configuration names. */
@@ -65,6 +88,17 @@ public class JavaDocConfigurable implements Configurable {
     private JTextArea templateArea;
     /** Area for descriptions. */
     private JTextArea descriptionArea;
+    /** Label showing the result of the live validation. */
+    private JLabel validationLabel;
+    /** Debounces the live validation, which runs on a pooled thread. Lives as long as this configurable. */
+    private final Alarm validationAlarm = new Alarm(Alarm.ThreadToUse.POOLED_THREAD);
+    /** Starts the live validation, registered while the component is shown. */
+    private final DocumentAdapter validationListener = new DocumentAdapter() {
+        @Override
+        protected void textChanged(DocumentEvent e) {
+            scheduleValidation();
+        }
+    };
     /** Template map, holds an index as key and a template instance as value. */
     private Map<Integer, Template> templateMap = new HashMap<Integer, Template>() {{
         put(0, new Template(new GetterDocConfig()));
@@ -119,6 +153,7 @@ public class JavaDocConfigurable implements Configurable {
                 }
             }
         });
+        templateArea.getDocument().addDocumentListener(validationListener);
         select(0);
         return mainPanel;
     }
@@ -126,26 +161,38 @@ public class JavaDocConfigurable implements Configurable {
     /**
      * Returns the modified status.
      *
-     * @return true.
+     * @return true if one of the templates differs from the saved template, otherwise false.
      */
     public boolean isModified() {
-        return true;
+        storeSelectedTemplate();
+        for (Template template : templateMap.values()) {
+            if (template.isModified()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * Applies the configuration changes.
+     * Applies the configuration changes. If a project is open, the changed templates are additionally checked with
+     * the PSI, after the fast check of the live validation passed.
      *
      * @throws ConfigurationException if one of the templates is invalid.
      */
     public void apply() throws ConfigurationException {
-        int selectedIndex = configJList.getSelectedIndex();
-        templateMap.get(selectedIndex).setContent(templateArea.getText());
+        storeSelectedTemplate();
+        Project project = findOpenProject();
         for (Template template : templateMap.values()) {
-            if (template.validate()) {
+            if (!template.isModified()) {
+                continue;
+            }
+            ValidationResult result = template.validate(project);
+            if (result.isValid()) {
                 template.save();
             } else {
                 String configName = template.getAbstractDocConfig().getConfigName();
-                throw new ConfigurationException("Template for " + configName + " is invalid!", "Template Error");
+                throw new ConfigurationException("Template for " + configName + " is invalid! " + result,
+                        "Template Error");
             }
         }
     }
@@ -170,8 +217,79 @@ public class JavaDocConfigurable implements Configurable {
         templateArea.setText(templateMap.get(index).getAbstractDocConfig().getTemplate());
     }
 
-    /** Not implemented. */
+    /**
+     * Stops the live validation. The configurable is reused when the settings are opened again, so the alarm is only
+     * cleared and the listener is registered again by {@linkplain #createComponent()}.
+     */
     public void disposeUIResources() {
+        validationAlarm.cancelAllRequests();
+        templateArea.getDocument().removeDocumentListener(validationListener);
+    }
+
+    /**
+     * Returns an open project for the PSI check of the templates.
+     *
+     * @return the first open project, null if no project is open.
+     */
+    @Nullable
+    private static Project findOpenProject() {
+        for (Project project : ProjectManager.getInstance().getOpenProjects()) {
+            if (!project.isDisposed()) {
+                return project;
+            }
+        }
+        return null;
+    }
+
+    /** Stores the content of the template area in the selected template. */
+    private void storeSelectedTemplate() {
+        int selectedIndex = configJList.getSelectedIndex();
+        if (selectedIndex >= 0 && selectedIndex < templateMap.size()) {
+            templateMap.get(selectedIndex).setContent(templateArea.getText());
+        }
+    }
+
+    /** Validates the content of the template area on a pooled thread after the user stopped typing. */
+    private void scheduleValidation() {
+        validationAlarm.cancelAllRequests();
+        final String content = templateArea.getText();
+        validationAlarm.addRequest(new Runnable() {
+            public void run() {
+                final ValidationResult result = TemplateValidator.validate(content);
+                ApplicationManager.getApplication().invokeLater(new Runnable() {
+                    public void run() {
+                        if (content.equals(templateArea.getText())) {
+                            showValidationResult(result);
+                        }
+                    }
+                }, ModalityState.stateForComponent(mainPanel));
+            }
+        }, VALIDATION_DELAY);
+    }
+
+    /**
+     * Shows the validation result below the template and highlights the position of an error.
+     *
+     * @param result the validation result.
+     */
+    private void showValidationResult(@NotNull ValidationResult result) {
+        Highlighter highlighter = templateArea.getHighlighter();
+        highlighter.removeAllHighlights();
+        validationLabel.setText(result.isValid() ? " " : result.toString());
+        validationLabel.setForeground(result.isValid() ? templateArea.getForeground() : Color.RED);
+        if (result.isValid() || result.getLine() <= 0) {
+            return;
+        }
+        try {
+            int line = Math.min(result.getLine() - 1, templateArea.getLineCount() - 1);
+            int offset = templateArea.getLineStartOffset(line) + Math.max(result.getColumn() - 1, 0);
+            int endOffset = Math.min(offset + 1, templateArea.getLineEndOffset(line));
+            if (offset < endOffset) {
+                highlighter.addHighlight(offset, endOffset, ERROR_PAINTER);
+            }
+        } catch (BadLocationException e) {
+            // the error position is outside of the current text, only the message is shown
+        }
     }
 
 
@@ -25,14 +25,15 @@
 
 package org.github.bpark.gui.configuration;
 
-import com.intellij.ide.DataManager;
-import com.intellij.openapi.actionSystem.DataContext;
-import com.intellij.openapi.actionSystem.DataKeys;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.AsyncResult;
 import org.github.bpark.config.AbstractDocConfig;
+import org.github.bpark.config.DocConfigService;
+import org.github.bpark.config.DocTemplate;
 import org.github.bpark.generator.JavadocGenerator;
+import org.github.bpark.generator.TemplateValidator;
+import org.github.bpark.generator.ValidationResult;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Data class for holding template and configuration data during the execution of the configuration dialog.
@@ -90,24 +91,55 @@ public class Template {
         abstractDocConfig.save(content);
     }
 
-    /** Reinitialization of the content with the template. */
+    /** Reinitialization of the content with the saved template. */
     public void reset() {
-        content = abstractDocConfig.getTemplate();
+        content = getSavedTemplate();
     }
 
     /**
-     * Validates the data.
+     * Returns the modified status.
      *
-     * @return true if the content is valid, otherwise false.
+     * @return true if the content differs from the saved template, otherwise false.
      */
-    public boolean validate() {
-        AsyncResult<DataContext> dataContextFromFocus = DataManager.getInstance().getDataContextFromFocus();
-        Project project = DataKeys.PROJECT.getData(dataContextFromFocus.getResult());
-        boolean ret = false;
-        if (project != null) {
-            JavadocGenerator generator = new JavadocGenerator(project, false);
-            ret = generator.validateTemplate(content);
+    public boolean isModified() {
+        return content != null && !content.equals(getSavedTemplate());
+    }
+
+    /**
+     * Validates the data, the velocity syntax and the javadoc structure are checked without project. The result is
+     * cached by content.
+     *
+     * @return the result, errors contain the line and column if known.
+     */
+    @NotNull
+    public ValidationResult validate() {
+        return TemplateValidator.validate(content);
+    }
+
+    /**
+     * Validates the data like {@linkplain #validate()}, and if a project is given additionally parses the rendered
+     * comment with the PSI, see {@linkplain JavadocGenerator#validateTemplate(String)}.
+     *
+     * @param project the project for the PSI check, null for the check without project.
+     * @return the result, errors contain the line and column if known.
+     */
+    @NotNull
+    public ValidationResult validate(@Nullable Project project) {
+        if (project == null) {
+            return validate();
         }
-        return ret;
+        return new JavadocGenerator(project, false).validateTemplate(content);
+    }
+
+    /**
+     * Returns the saved template.
+     *
+     * @return the template of the current settings.
+     */
+    @NotNull
+    private String getSavedTemplate() {
+        DocTemplate docTemplate = DocConfigService.getInstance().getSnapshot()
+                .getTemplate(abstractDocConfig.getConfigName());
+        return docTemplate != null ? docTemplate.getTemplate() : abstractDocConfig.getTemplate();
     }
 }
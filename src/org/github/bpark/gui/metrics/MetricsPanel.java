@@ -0,0 +1,206 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.gui.metrics;
+
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.fileChooser.FileSaverDialog;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import org.github.bpark.generator.DocCommentPrototypes;
+import org.github.bpark.generator.GenerationScheduler;
+import org.github.bpark.generator.RenderedTextCache;
+import org.github.bpark.metrics.PipelineMetrics;
+import org.github.bpark.metrics.RunMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.text.DateFormat;
+import java.util.Date;
+
+/**
+ * Panel of the metrics tool window, shows the last run, the cumulative metrics, the statistics of the rendered
+ * text cache and the state of the {@linkplain GenerationScheduler}. The tables are refreshed every second while the
+ * panel is showing.
+ *
+ * @author Burt Parkers
+ */
+public class MetricsPanel extends JPanel {
+
+    /** Refresh interval in milliseconds. */
+    private static final int REFRESH_INTERVAL = 1000;
+
+    /** The project, used as parent for dialogs. */
+    private final Project project;
+
+    /** Model of the last run table. */
+    private final StageTableModel lastRunModel = new StageTableModel();
+
+    /** Model of the cumulative table. */
+    private final StageTableModel cumulativeModel = new StageTableModel();
+
+    /** Label describing the last run. */
+    private final JLabel lastRunLabel = new JLabel();
+
+    /** Label showing the statistics of the rendered text cache and of the doc comment prototypes. */
+    private final JLabel renderCacheLabel = new JLabel();
+
+    /** Label showing the queue depth and the wait times of the scheduler. */
+    private final JLabel schedulerLabel = new JLabel();
+
+    /** Refreshes the tables while the panel is showing. */
+    private final Timer refreshTimer = new Timer(REFRESH_INTERVAL, new ActionListener() {
+        public void actionPerformed(ActionEvent e) {
+            refresh();
+        }
+    });
+
+
+    /**
+     * Constructor.
+     *
+     * @param project the project.
+     */
+    public MetricsPanel(@NotNull Project project) {
+        super(new BorderLayout());
+        this.project = project;
+
+        JPanel tablePanel = new JPanel(new GridLayout(2, 1));
+        tablePanel.add(createTablePanel(lastRunLabel, lastRunModel));
+        tablePanel.add(createTablePanel(new JLabel("Cumulative"), cumulativeModel));
+        add(tablePanel, BorderLayout.CENTER);
+        add(createButtonPanel(), BorderLayout.NORTH);
+        JPanel statusPanel = new JPanel(new GridLayout(2, 1));
+        statusPanel.add(renderCacheLabel);
+        statusPanel.add(schedulerLabel);
+        add(statusPanel, BorderLayout.SOUTH);
+        refresh();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refreshTimer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        refreshTimer.stop();
+        super.removeNotify();
+    }
+
+    /** Shows the current metrics. */
+    private void refresh() {
+        PipelineMetrics pipelineMetrics = PipelineMetrics.getInstance();
+        RunMetrics lastRun = pipelineMetrics.getLastRun();
+        if (lastRun != null) {
+            String startTime = DateFormat.getTimeInstance().format(new Date(lastRun.getStartTime()));
+            lastRunLabel.setText("Last run: " + lastRun.getName() + " (" + startTime + ")");
+        } else {
+            lastRunLabel.setText("Last run: none");
+        }
+        lastRunModel.setMetrics(lastRun);
+        cumulativeModel.setMetrics(pipelineMetrics.getCumulative());
+        DocCommentPrototypes prototypes = DocCommentPrototypes.getInstance(project);
+        renderCacheLabel.setText("Render cache: " + RenderedTextCache.getInstance() + "; doc comments: "
+                + prototypes.getParseCount() + " parsed, " + prototypes.getReuseCount() + " copied from prototypes");
+        schedulerLabel.setText("Scheduler: " + GenerationScheduler.getInstance());
+    }
+
+    /** Writes the metrics as JSON to a file chosen by the user. */
+    private void exportJson() {
+        FileSaverDescriptor descriptor = new FileSaverDescriptor("Export Metrics", "Export the metrics as JSON",
+                "json");
+        FileSaverDialog dialog = FileChooserFactory.getInstance().createSaveFileDialog(descriptor, project);
+        VirtualFileWrapper fileWrapper = dialog.save(null, "gen-javadoc-metrics.json");
+        if (fileWrapper == null) {
+            return;
+        }
+        try {
+            FileUtil.writeToFile(fileWrapper.getFile(), PipelineMetrics.getInstance().toJson().getBytes("UTF-8"));
+        } catch (IOException e) {
+            Messages.showErrorDialog(project, "Could not write " + fileWrapper.getFile() + ": " + e.getMessage(),
+                    "Export Metrics");
+        }
+    }
+
+    /**
+     * Creates the panel with the refresh, reset and export buttons.
+     *
+     * @return the panel.
+     */
+    @NotNull
+    private JPanel createButtonPanel() {
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                refresh();
+            }
+        });
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                PipelineMetrics.getInstance().reset();
+                RenderedTextCache.getInstance().resetStats();
+                refresh();
+            }
+        });
+        JButton exportButton = new JButton("Export as JSON...");
+        exportButton.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                exportJson();
+            }
+        });
+        buttonPanel.add(refreshButton);
+        buttonPanel.add(resetButton);
+        buttonPanel.add(exportButton);
+        return buttonPanel;
+    }
+
+    /**
+     * Creates a titled table.
+     *
+     * @param title the title label.
+     * @param model the table model.
+     * @return the panel containing the title and the table.
+     */
+    @NotNull
+    private static JPanel createTablePanel(@NotNull JLabel title, @NotNull StageTableModel model) {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(title, BorderLayout.NORTH);
+        panel.add(new JBScrollPane(new JBTable(model)), BorderLayout.CENTER);
+        return panel;
+    }
+}
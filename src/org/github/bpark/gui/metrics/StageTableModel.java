@@ -0,0 +1,107 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.gui.metrics;
+
+import org.github.bpark.metrics.RunMetrics;
+import org.github.bpark.metrics.Stage;
+import org.github.bpark.metrics.StageStats;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Table model showing the statistics of all stages of one {@linkplain RunMetrics}, one row per stage. Latencies are
+ * shown in microseconds, percentiles are the upper bounds of the histogram buckets.
+ *
+ * @author Burt Parkers
+ */
+class StageTableModel extends AbstractTableModel {
+
+    /** The column names. */
+    private static final String[] COLUMN_NAMES =
+            {"Stage", "Count", "Total ms", "Mean us", "p50 us", "p90 us", "p99 us", "Max us"};
+
+    /** The shown metrics, null if there are none. */
+    private RunMetrics metrics;
+
+
+    /**
+     * Replaces the shown metrics and refreshes the table.
+     *
+     * @param metrics the metrics, null if there are none.
+     */
+    void setMetrics(@Nullable RunMetrics metrics) {
+        this.metrics = metrics;
+        fireTableDataChanged();
+    }
+
+    public int getRowCount() {
+        return Stage.values().length;
+    }
+
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return columnIndex == 0 ? String.class : Long.class;
+    }
+
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Stage stage = Stage.values()[rowIndex];
+        if (columnIndex == 0) {
+            return stage.getDisplayName();
+        }
+        if (metrics == null) {
+            return null;
+        }
+        StageStats stats = metrics.getStageStats(stage);
+        long count = stats.getCount();
+        switch (columnIndex) {
+            case 1:
+                return count;
+            case 2:
+                return TimeUnit.NANOSECONDS.toMillis(stats.getTotalNanos());
+            case 3:
+                return count > 0 ? TimeUnit.NANOSECONDS.toMicros(stats.getTotalNanos() / count) : 0L;
+            case 4:
+                return stats.getPercentileMicros(50);
+            case 5:
+                return stats.getPercentileMicros(90);
+            case 6:
+                return stats.getPercentileMicros(99);
+            default:
+                return TimeUnit.NANOSECONDS.toMicros(stats.getMaxNanos());
+        }
+    }
+}
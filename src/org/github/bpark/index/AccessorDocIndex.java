@@ -0,0 +1,251 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.index;
+
+import com.intellij.openapi.fileTypes.StdFileTypes;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.javadoc.PsiDocComment;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorIntegerDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.github.bpark.generator.CommentTextUtil;
+import org.github.bpark.util.GenDocPsiUtil;
+import org.github.bpark.util.MethodType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * File based index of the accessors of every java file and their documentation status. Bulk operations query the
+ * index for the files which need work, the other files are never parsed.
+ * <p/>
+ * Every file with accessors is stored under the key {@linkplain #ACCESSORS} together with its entries. Files with at
+ * least one undocumented accessor are additionally stored under the key {@linkplain #UNDOCUMENTED}, with an empty
+ * value, so the lookup of these files doesn't read any entries.
+ *
+ * @author Burt Parkers
+ */
+public class AccessorDocIndex extends FileBasedIndexExtension<Integer, AccessorFileData> {
+
+    /** The index id. */
+    public static final ID<Integer, AccessorFileData> NAME = ID.create("gen-javadoc.AccessorDocIndex");
+
+    /** Key for files containing accessors. */
+    public static final int ACCESSORS = 0;
+
+    /** Key for files containing undocumented accessors. */
+    public static final int UNDOCUMENTED = 1;
+
+    /** The index version, must be increased whenever the indexer or the format changes. */
+    private static final int VERSION = 1;
+
+    /** Flag for getters inside the stored entry flags, setters have no flag. */
+    private static final int GETTER_FLAG = 1;
+
+    /** Flag for documented accessors inside the stored entry flags, only these have a stored doc hash. */
+    private static final int DOCUMENTED_FLAG = 2;
+
+    /** Accepts java files only. */
+    private static final FileBasedIndex.InputFilter INPUT_FILTER = new FileBasedIndex.InputFilter() {
+        public boolean acceptInput(VirtualFile file) {
+            return file.getFileType() == StdFileTypes.JAVA;
+        }
+    };
+
+    /** Creates the index entries of a file. */
+    private static final DataIndexer<Integer, AccessorFileData, FileContent> INDEXER =
+            new DataIndexer<Integer, AccessorFileData, FileContent>() {
+                @NotNull
+                public Map<Integer, AccessorFileData> map(FileContent inputData) {
+                    PsiFile psiFile = inputData.getPsiFile();
+                    if (!(psiFile instanceof PsiJavaFile)) {
+                        return Collections.emptyMap();
+                    }
+                    List<AccessorEntry> entries = collectEntries((PsiJavaFile) psiFile);
+                    if (entries.isEmpty()) {
+                        return Collections.emptyMap();
+                    }
+                    AccessorFileData fileData = new AccessorFileData(entries);
+                    Map<Integer, AccessorFileData> result = new HashMap<Integer, AccessorFileData>(4);
+                    result.put(ACCESSORS, fileData);
+                    if (fileData.getUndocumentedCount() > 0) {
+                        result.put(UNDOCUMENTED, AccessorFileData.EMPTY);
+                    }
+                    return result;
+                }
+            };
+
+    /** Stores the entries with a variable length count, one flag byte per entry and the hash of documented ones. */
+    private static final DataExternalizer<AccessorFileData> EXTERNALIZER = new DataExternalizer<AccessorFileData>() {
+        public void save(DataOutput out, AccessorFileData value) throws IOException {
+            List<AccessorEntry> entries = value.getEntries();
+            DataInputOutputUtil.writeINT(out, entries.size());
+            for (AccessorEntry entry : entries) {
+                IOUtil.writeUTF(out, entry.getName());
+                int flags = entry.getKind() == MethodType.GETTER ? GETTER_FLAG : 0;
+                if (entry.isDocumented()) {
+                    flags |= DOCUMENTED_FLAG;
+                }
+                out.writeByte(flags);
+                if (entry.isDocumented()) {
+                    out.writeInt(entry.getDocHash());
+                }
+            }
+        }
+
+        public AccessorFileData read(DataInput in) throws IOException {
+            int size = DataInputOutputUtil.readINT(in);
+            if (size == 0) {
+                return AccessorFileData.EMPTY;
+            }
+            List<AccessorEntry> entries = new ArrayList<AccessorEntry>(size);
+            for (int i = 0; i < size; i++) {
+                String name = IOUtil.readUTF(in);
+                int flags = in.readByte();
+                boolean documented = (flags & DOCUMENTED_FLAG) != 0;
+                MethodType kind = (flags & GETTER_FLAG) != 0 ? MethodType.GETTER : MethodType.SETTER;
+                entries.add(new AccessorEntry(name, kind, documented, documented ? in.readInt() : 0));
+            }
+            return new AccessorFileData(entries);
+        }
+    };
+
+    @NotNull
+    @Override
+    public ID<Integer, AccessorFileData> getName() {
+        return NAME;
+    }
+
+    @Override
+    public DataIndexer<Integer, AccessorFileData, FileContent> getIndexer() {
+        return INDEXER;
+    }
+
+    @Override
+    public KeyDescriptor<Integer> getKeyDescriptor() {
+        return EnumeratorIntegerDescriptor.INSTANCE;
+    }
+
+    @Override
+    public DataExternalizer<AccessorFileData> getValueExternalizer() {
+        return EXTERNALIZER;
+    }
+
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return INPUT_FILTER;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    /**
+     * Returns the files of a scope which need work. Must be called inside a read action while the project is not in
+     * dumb mode.
+     *
+     * @param scope the scope.
+     * @param undocumentedOnly true for files with undocumented accessors only, false for all files with accessors.
+     * @return the files.
+     */
+    @NotNull
+    public static Collection<VirtualFile> getFiles(@NotNull GlobalSearchScope scope, boolean undocumentedOnly) {
+        return FileBasedIndex.getInstance().getContainingFiles(NAME, undocumentedOnly ? UNDOCUMENTED : ACCESSORS,
+                scope);
+    }
+
+    /**
+     * Returns the indexed accessors of a file. Must be called inside a read action while the project is not in dumb
+     * mode.
+     *
+     * @param project the project.
+     * @param file the file.
+     * @return the accessors or null if the file has no accessors.
+     */
+    @Nullable
+    public static AccessorFileData getFileData(@NotNull Project project, @NotNull VirtualFile file) {
+        List<AccessorFileData> values = FileBasedIndex.getInstance().getValues(NAME, ACCESSORS,
+                GlobalSearchScope.fileScope(project, file));
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Collects the accessors of all classes of a file, the methods are selected like in
+     * {@linkplain GenDocPsiUtil#retrieveMethods(PsiClass, MethodType)}.
+     *
+     * @param psiJavaFile the file.
+     * @return the accessors in source order.
+     */
+    @NotNull
+    private static List<AccessorEntry> collectEntries(@NotNull PsiJavaFile psiJavaFile) {
+        List<AccessorEntry> entries = new ArrayList<AccessorEntry>();
+        for (PsiClass psiClass : GenDocPsiUtil.collectClasses(psiJavaFile)) {
+            for (PsiMethod psiMethod : psiClass.getMethods()) {
+                if (!MethodType.SETTER_AND_GETTER.isType(psiMethod) || hasOverrideAnnotation(psiMethod)) {
+                    continue;
+                }
+                MethodType kind = MethodType.GETTER.isType(psiMethod) ? MethodType.GETTER : MethodType.SETTER;
+                PsiDocComment docComment = psiMethod.getDocComment();
+                int docHash = docComment != null ? CommentTextUtil.normalize(docComment.getText()).hashCode() : 0;
+                entries.add(new AccessorEntry(psiMethod.getName(), kind, docComment != null, docHash));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Checks if a method has a override annotation, like {@linkplain GenDocPsiUtil#containsOverride(PsiMethod)}.
+     * References must not be resolved while indexing, so the annotation name is compared textually.
+     *
+     * @param psiMethod the method to check.
+     * @return true if the method has a override annotation, otherwise false.
+     */
+    private static boolean hasOverrideAnnotation(@NotNull PsiMethod psiMethod) {
+        for (PsiAnnotation psiAnnotation : psiMethod.getModifierList().getAnnotations()) {
+            PsiJavaCodeReferenceElement reference = psiAnnotation.getNameReferenceElement();
+            if (reference != null && Override.class.getSimpleName().equals(reference.getReferenceName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.index;
+
+import org.github.bpark.util.MethodType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Indexed documentation status of one accessor.
+ *
+ * @author Burt Parkers
+ */
+public final class AccessorEntry {
+
+    /** The method name. */
+    private final String name;
+
+    /** The accessor kind, {@linkplain MethodType#GETTER} or {@linkplain MethodType#SETTER}. */
+    private final MethodType kind;
+
+    /** True if the accessor has a doc comment, otherwise false. */
+    private final boolean documented;
+
+    /** Hash of the normalized doc comment, 0 if the accessor has no doc comment. */
+    private final int docHash;
+
+
+    /**
+     * Constructor.
+     *
+     * @param name the method name.
+     * @param kind the accessor kind.
+     * @param documented true if the accessor has a doc comment, otherwise false.
+     * @param docHash hash of the normalized doc comment, 0 if the accessor has no doc comment.
+     */
+    public AccessorEntry(@NotNull String name, @NotNull MethodType kind, boolean documented, int docHash) {
+        this.name = name;
+        this.kind = kind;
+        this.documented = documented;
+        this.docHash = docHash;
+    }
+
+    /**
+     * Returns the method name.
+     *
+     * @return the method name.
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the accessor kind.
+     *
+     * @return {@linkplain MethodType#GETTER} or {@linkplain MethodType#SETTER}.
+     */
+    @NotNull
+    public MethodType getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the documentation status.
+     *
+     * @return true if the accessor has a doc comment, otherwise false.
+     */
+    public boolean isDocumented() {
+        return documented;
+    }
+
+    /**
+     * Returns the hash of the normalized doc comment.
+     *
+     * @return the hash, 0 if the accessor has no doc comment.
+     */
+    public int getDocHash() {
+        return docHash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AccessorEntry)) {
+            return false;
+        }
+        AccessorEntry that = (AccessorEntry) o;
+        return documented == that.documented && docHash == that.docHash && kind == that.kind
+                && name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = name.hashCode();
+        result = 31 * result + kind.hashCode();
+        result = 31 * result + (documented ? 1 : 0);
+        return 31 * result + docHash;
+    }
+}
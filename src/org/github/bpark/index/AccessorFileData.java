@@ -0,0 +1,90 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.index;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Indexed accessors of one java file.
+ *
+ * @author Burt Parkers
+ */
+public final class AccessorFileData {
+
+    /** Data without entries, used for the marker keys. */
+    static final AccessorFileData EMPTY = new AccessorFileData(Collections.<AccessorEntry>emptyList());
+
+    /** The accessors, in source order. */
+    private final List<AccessorEntry> entries;
+
+
+    /**
+     * Constructor.
+     *
+     * @param entries the accessors.
+     */
+    AccessorFileData(@NotNull List<AccessorEntry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Returns the accessors.
+     *
+     * @return the accessors, in source order.
+     */
+    @NotNull
+    public List<AccessorEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the number of accessors without doc comment.
+     *
+     * @return the number of undocumented accessors.
+     */
+    public int getUndocumentedCount() {
+        int count = 0;
+        for (AccessorEntry entry : entries) {
+            if (!entry.isDocumented()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof AccessorFileData && entries.equals(((AccessorFileData) o).entries));
+    }
+
+    @Override
+    public int hashCode() {
+        return entries.hashCode();
+    }
+}
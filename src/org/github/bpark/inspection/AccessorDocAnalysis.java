@@ -0,0 +1,110 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.inspection;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.javadoc.PsiDocComment;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.github.bpark.config.DocConfigService;
+import org.github.bpark.config.DocTemplate;
+import org.github.bpark.config.TemplateSnapshot;
+import org.github.bpark.generator.CommentTextUtil;
+import org.github.bpark.generator.JavadocGenerator;
+import org.github.bpark.util.GenDocPsiUtil;
+import org.github.bpark.util.MethodType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Analysis of the accessor documentation of a class. The result is cached per class and recomputed only after a PSI
+ * change or a settings change, so highlighting does not render the comments again on every pass.
+ *
+ * @author Burt Parkers
+ */
+public final class AccessorDocAnalysis {
+
+    /** Key of the cached analysis. */
+    private static final Key<CachedValue<Map<PsiMethod, DocStatus>>> ANALYSIS_KEY =
+            Key.create("gendoc.accessor.analysis");
+
+    /** Prevents util class instantiation. */
+    private AccessorDocAnalysis() {
+    }
+
+    /**
+     * Returns the accessors of a class with a missing or stale doc comment. Must be called inside a read action.
+     *
+     * @param psiClass the class.
+     * @return the accessors and their status, in source order.
+     */
+    @NotNull
+    public static Map<PsiMethod, DocStatus> analyze(@NotNull final PsiClass psiClass) {
+        return CachedValuesManager.getManager(psiClass.getProject()).getCachedValue(psiClass, ANALYSIS_KEY,
+                new CachedValueProvider<Map<PsiMethod, DocStatus>>() {
+                    public Result<Map<PsiMethod, DocStatus>> compute() {
+                        DocConfigService docConfigService = DocConfigService.getInstance();
+                        Map<PsiMethod, DocStatus> statusMap = compute(psiClass, docConfigService.getSnapshot());
+                        return Result.create(statusMap, PsiModificationTracker.MODIFICATION_COUNT, docConfigService);
+                    }
+                }, false);
+    }
+
+    /**
+     * Computes the analysis.
+     *
+     * @param psiClass the class.
+     * @param snapshot the settings.
+     * @return the accessors and their status.
+     */
+    @NotNull
+    private static Map<PsiMethod, DocStatus> compute(@NotNull PsiClass psiClass, @NotNull TemplateSnapshot snapshot) {
+        Map<PsiMethod, DocStatus> statusMap = new LinkedHashMap<PsiMethod, DocStatus>();
+        JavadocGenerator generator = new JavadocGenerator(psiClass.getProject(), false);
+        for (PsiMethod psiMethod : GenDocPsiUtil.retrieveMethods(psiClass, MethodType.SETTER_AND_GETTER)) {
+            PsiDocComment docComment = psiMethod.getDocComment();
+            if (docComment == null) {
+                statusMap.put(psiMethod, DocStatus.MISSING);
+                continue;
+            }
+            DocTemplate docTemplate = MethodType.GETTER.isType(psiMethod)
+                    ? snapshot.getGetterTemplate() : snapshot.getSetterTemplate();
+            String commentText = generator.render(psiClass, psiMethod, docTemplate);
+            if (!CommentTextUtil.isSame(docComment.getText(), commentText)) {
+                statusMap.put(psiMethod, DocStatus.STALE);
+            }
+        }
+        return statusMap.isEmpty() ? Collections.<PsiMethod, DocStatus>emptyMap()
+                : Collections.unmodifiableMap(statusMap);
+    }
+}
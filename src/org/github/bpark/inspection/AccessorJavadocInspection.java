@@ -0,0 +1,112 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.inspection;
+
+import com.intellij.codeInsight.daemon.GroupNames;
+import com.intellij.codeInspection.BaseJavaLocalInspectionTool;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ui.SingleCheckboxOptionsPanel;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiMethod;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inspection for getters and setters without doc comment, or with a doc comment which differs from the comment the
+ * current template renders.
+ *
+ * @author Burt Parkers
+ */
+public class AccessorJavadocInspection extends BaseJavaLocalInspectionTool {
+
+    /** True for reporting comments which differ from the template, false otherwise. */
+    @SuppressWarnings({"PublicField"})
+    public boolean REPORT_STALE = true;
+
+    @Nls
+    @NotNull
+    @Override
+    public String getGroupDisplayName() {
+        return GroupNames.JAVADOC_GROUP_NAME;
+    }
+
+    @Nls
+    @NotNull
+    @Override
+    public String getDisplayName() {
+        return "Missing or stale accessor JavaDoc";
+    }
+
+    @NotNull
+    @Override
+    public String getShortName() {
+        return "AccessorJavadoc";
+    }
+
+    @Override
+    public JComponent createOptionsPanel() {
+        return new SingleCheckboxOptionsPanel("Report comments which differ from the template", this, "REPORT_STALE");
+    }
+
+    @Nullable
+    @Override
+    public ProblemDescriptor[] checkClass(@NotNull PsiClass aClass, @NotNull InspectionManager manager,
+                                          boolean isOnTheFly) {
+        if (aClass.isInterface()) {
+            return null;
+        }
+        Map<PsiMethod, DocStatus> statusMap = AccessorDocAnalysis.analyze(aClass);
+        if (statusMap.isEmpty()) {
+            return null;
+        }
+
+        LocalQuickFix quickFix = new GenerateFileJavadocFix(REPORT_STALE);
+        List<ProblemDescriptor> problems = new ArrayList<ProblemDescriptor>();
+        for (Map.Entry<PsiMethod, DocStatus> entry : statusMap.entrySet()) {
+            if (entry.getValue() == DocStatus.STALE && !REPORT_STALE) {
+                continue;
+            }
+            PsiMethod psiMethod = entry.getKey();
+            PsiElement element = psiMethod.getNameIdentifier() != null ? psiMethod.getNameIdentifier() : psiMethod;
+            String message = entry.getValue() == DocStatus.MISSING
+                    ? "Accessor <code>#ref</code> has no JavaDoc"
+                    : "JavaDoc of accessor <code>#ref</code> differs from the template";
+            problems.add(manager.createProblemDescriptor(element, message, quickFix,
+                    ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly));
+        }
+        return problems.isEmpty() ? null : problems.toArray(new ProblemDescriptor[problems.size()]);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.inspection;
+
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiMethod;
+import org.github.bpark.config.DocConfigService;
+import org.github.bpark.config.TemplateSnapshot;
+import org.github.bpark.generator.DocEdit;
+import org.github.bpark.generator.JavadocGenerator;
+import org.github.bpark.metrics.PipelineMetrics;
+import org.github.bpark.metrics.RunMetrics;
+import org.github.bpark.util.GenDocPsiUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quick fix generating the documentation of all reported accessors in a file with one write command.
+ *
+ * @author Burt Parkers
+ */
+public class GenerateFileJavadocFix implements LocalQuickFix {
+
+    /** True for regenerating comments which differ from the template, false otherwise. */
+    private final boolean fixStale;
+
+    /**
+     * Constructor.
+     *
+     * @param fixStale true for regenerating comments which differ from the template, false otherwise.
+     */
+    public GenerateFileJavadocFix(boolean fixStale) {
+        this.fixStale = fixStale;
+    }
+
+    @NotNull
+    public String getName() {
+        return "Generate JavaDoc for all accessors in file";
+    }
+
+    @NotNull
+    public String getFamilyName() {
+        return getName();
+    }
+
+    public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+        PsiElement element = descriptor.getPsiElement();
+        PsiFile psiFile = element != null ? element.getContainingFile() : null;
+        if (!(psiFile instanceof PsiJavaFile)) {
+            return;
+        }
+
+        TemplateSnapshot snapshot = DocConfigService.getInstance().getSnapshot();
+        RunMetrics metrics = PipelineMetrics.getInstance().startRun("Fix JavaDoc in " + psiFile.getName());
+        JavadocGenerator generator = new JavadocGenerator(project, true, snapshot.getFormatMode(), metrics);
+        List<DocEdit> docEdits = new ArrayList<DocEdit>();
+        for (PsiClass psiClass : GenDocPsiUtil.collectClasses((PsiJavaFile) psiFile)) {
+            List<PsiMethod> methodList = new ArrayList<PsiMethod>();
+            for (Map.Entry<PsiMethod, DocStatus> entry : AccessorDocAnalysis.analyze(psiClass).entrySet()) {
+                if (fixStale || entry.getValue() == DocStatus.MISSING) {
+                    methodList.add(entry.getKey());
+                }
+            }
+            if (!methodList.isEmpty()) {
+                docEdits.addAll(generator.prepare(psiClass,
+                        JavadocGenerator.groupByConfig(methodList, snapshot, metrics)));
+            }
+        }
+        generator.apply(psiFile, docEdits);
+    }
+}
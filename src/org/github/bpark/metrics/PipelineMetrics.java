@@ -0,0 +1,150 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.metrics;
+
+import com.intellij.openapi.components.ServiceManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Application service holding the metrics of the last generation run and the cumulative metrics of all runs since
+ * the start of the IDE or the last reset. Only runs started by the user are measured, the inspection uses
+ * {@linkplain RunMetrics#DISABLED}.
+ *
+ * @author Burt Parkers
+ */
+public class PipelineMetrics {
+
+    /** The metrics of the last run, null before the first run. */
+    private volatile RunMetrics lastRun;
+
+    /** The cumulative metrics. */
+    private volatile RunMetrics cumulative = createCumulative();
+
+
+    /**
+     * Returns the service instance.
+     *
+     * @return the service.
+     */
+    @NotNull
+    public static PipelineMetrics getInstance() {
+        return ServiceManager.getService(PipelineMetrics.class);
+    }
+
+    /**
+     * Starts a new run, the run replaces the last run.
+     *
+     * @param name the name of the run, e.g. the action.
+     * @return the metrics of the new run.
+     */
+    @NotNull
+    public RunMetrics startRun(@NotNull String name) {
+        RunMetrics runMetrics = createRun(name);
+        lastRun = runMetrics;
+        return runMetrics;
+    }
+
+    /**
+     * Creates a run which does not replace the last run yet, for runs which may be dropped before they execute. The
+     * samples are added to the cumulative metrics anyway. See {@linkplain #startRun(RunMetrics)}.
+     *
+     * @param name the name of the run, e.g. the action.
+     * @return the metrics of the new run.
+     */
+    @NotNull
+    public RunMetrics createRun(@NotNull String name) {
+        return new RunMetrics(name, System.currentTimeMillis(), cumulative);
+    }
+
+    /**
+     * Starts a run created by {@linkplain #createRun(String)}, the run replaces the last run.
+     *
+     * @param runMetrics the metrics of the run.
+     */
+    public void startRun(@NotNull RunMetrics runMetrics) {
+        if (runMetrics != RunMetrics.DISABLED) {
+            lastRun = runMetrics;
+        }
+    }
+
+    /**
+     * Returns the metrics of the last run.
+     *
+     * @return the metrics or null if nothing was generated yet.
+     */
+    @Nullable
+    public RunMetrics getLastRun() {
+        return lastRun;
+    }
+
+    /**
+     * Returns the cumulative metrics.
+     *
+     * @return the metrics.
+     */
+    @NotNull
+    public RunMetrics getCumulative() {
+        return cumulative;
+    }
+
+    /** Clears the last run and the cumulative metrics. Runs still in progress are not counted anymore. */
+    public void reset() {
+        lastRun = null;
+        cumulative = createCumulative();
+    }
+
+    /**
+     * Returns the last run and the cumulative metrics as JSON.
+     *
+     * @return the JSON document.
+     */
+    @NotNull
+    public String toJson() {
+        RunMetrics currentLastRun = lastRun;
+        StringBuilder builder = new StringBuilder(4096);
+        builder.append("{\"lastRun\":");
+        if (currentLastRun != null) {
+            currentLastRun.appendJson(builder);
+        } else {
+            builder.append("null");
+        }
+        builder.append(",\"cumulative\":");
+        cumulative.appendJson(builder);
+        builder.append('}');
+        return builder.toString();
+    }
+
+    /**
+     * Creates empty cumulative metrics.
+     *
+     * @return the metrics.
+     */
+    @NotNull
+    private static RunMetrics createCumulative() {
+        return new RunMetrics("cumulative", System.currentTimeMillis(), null);
+    }
+}
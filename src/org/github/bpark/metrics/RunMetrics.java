@@ -0,0 +1,162 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Thread safe statistics of all stages of a generation run. Every measurement is also added to the cumulative
+ * statistics the run was created for.
+ *
+ * @author Burt Parkers
+ */
+public final class RunMetrics {
+
+    /** Metrics which ignore all measurements, used when nothing should be recorded. */
+    public static final RunMetrics DISABLED = new RunMetrics("disabled", 0, null);
+
+    /** The name of the run. */
+    private final String name;
+
+    /** The start time in milliseconds. */
+    private final long startTime;
+
+    /** The cumulative statistics, null for the cumulative statistics themselves. */
+    private final RunMetrics cumulative;
+
+    /** The statistics per stage. */
+    private final Map<Stage, StageStats> stageStats = new EnumMap<Stage, StageStats>(Stage.class);
+
+
+    /**
+     * Constructor.
+     *
+     * @param name the name of the run.
+     * @param startTime the start time in milliseconds.
+     * @param cumulative the cumulative statistics, null for the cumulative statistics themselves.
+     */
+    RunMetrics(@NotNull String name, long startTime, @Nullable RunMetrics cumulative) {
+        this.name = name;
+        this.startTime = startTime;
+        this.cumulative = cumulative;
+        for (Stage stage : Stage.values()) {
+            stageStats.put(stage, new StageStats());
+        }
+    }
+
+    /**
+     * Adds a measurement, the end time is now.
+     *
+     * @param stage the stage.
+     * @param startNanos the start time from {@linkplain System#nanoTime()}.
+     */
+    public void record(@NotNull Stage stage, long startNanos) {
+        if (this == DISABLED) {
+            return;
+        }
+        long nanos = System.nanoTime() - startNanos;
+        stageStats.get(stage).record(nanos);
+        if (cumulative != null) {
+            cumulative.stageStats.get(stage).record(nanos);
+        }
+    }
+
+    /**
+     * Returns the name of the run.
+     *
+     * @return the name.
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the start time of the run.
+     *
+     * @return the start time in milliseconds.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the statistics of a stage.
+     *
+     * @param stage the stage.
+     * @return the statistics.
+     */
+    @NotNull
+    public StageStats getStageStats(@NotNull Stage stage) {
+        return stageStats.get(stage);
+    }
+
+    /**
+     * Appends the statistics of all stages as JSON object.
+     *
+     * @param builder the builder to append to.
+     */
+    void appendJson(@NotNull StringBuilder builder) {
+        builder.append("{\"name\":\"").append(escape(name)).append("\",\"startTime\":").append(startTime)
+                .append(",\"stages\":{");
+        boolean first = true;
+        for (Map.Entry<Stage, StageStats> entry : stageStats.entrySet()) {
+            if (!first) {
+                builder.append(',');
+            }
+            builder.append('"').append(entry.getKey().name()).append("\":");
+            entry.getValue().appendJson(builder);
+            first = false;
+        }
+        builder.append("}}");
+    }
+
+    /**
+     * Escapes a JSON string value.
+     *
+     * @param value the value.
+     * @return the escaped value.
+     */
+    @NotNull
+    private static String escape(@NotNull String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < ' ') {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+}
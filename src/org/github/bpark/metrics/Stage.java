@@ -0,0 +1,76 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Enumeration for the measured stages of a generation run.
+ *
+ * @author Burt Parkers
+ */
+public enum Stage {
+
+    /** Retrieving the accessors of a class. */
+    DISCOVERY("Discovery"),
+
+    /** Checking the type of a single method. */
+    CLASSIFICATION("Classification"),
+
+    /** Rendering the template for a single method. */
+    RENDER("Render"),
+
+    /** Parsing a rendered comment. */
+    PARSE("Doc parse"),
+
+    /** Inserting a single comment. */
+    WRITE("Write"),
+
+    /** Formatting and committing the comments of one file. */
+    REFORMAT("Reformat");
+
+    /** The name shown in the tool window. */
+    private final String displayName;
+
+    /**
+     * Constructor.
+     *
+     * @param displayName the name shown in the tool window.
+     */
+    Stage(@NotNull String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns the name shown in the tool window.
+     *
+     * @return the display name.
+     */
+    @NotNull
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe statistics of one stage: count, total and maximum time and a latency histogram. The histogram has
+ * power of two buckets in microseconds, bucket 0 counts the measurements below 1 microsecond, bucket i the
+ * measurements below 2^i microseconds.
+ *
+ * @author Burt Parkers
+ */
+public final class StageStats {
+
+    /** Number of histogram buckets, the last bucket counts everything above 2^30 microseconds. */
+    public static final int BUCKET_COUNT = 32;
+
+    /** Number of measurements. */
+    private final AtomicLong count = new AtomicLong();
+
+    /** Sum of all measurements in nanoseconds. */
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    /** Maximum measurement in nanoseconds. */
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /** The histogram buckets. */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+
+    /**
+     * Adds a measurement.
+     *
+     * @param nanos the measured time in nanoseconds.
+     */
+    void record(long nanos) {
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+        buckets.incrementAndGet(bucketOf(nanos));
+    }
+
+    /**
+     * Returns the number of measurements.
+     *
+     * @return the count.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the sum of all measurements.
+     *
+     * @return the total time in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    /**
+     * Returns the maximum measurement.
+     *
+     * @return the maximum time in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the number of measurements of a histogram bucket.
+     *
+     * @param bucket the bucket index, 0 to {@linkplain #BUCKET_COUNT} - 1.
+     * @return the count of the bucket.
+     */
+    public long getBucketCount(int bucket) {
+        return buckets.get(bucket);
+    }
+
+    /**
+     * Returns the exclusive upper bound of a histogram bucket.
+     *
+     * @param bucket the bucket index.
+     * @return the upper bound in microseconds.
+     */
+    public static long getBucketUpperBoundMicros(int bucket) {
+        return 1L << bucket;
+    }
+
+    /**
+     * Estimates a percentile from the histogram.
+     *
+     * @param percentile the percentile, between 0 and 100.
+     * @return the upper bound of the bucket containing the percentile in microseconds, 0 without measurements.
+     */
+    public long getPercentileMicros(double percentile) {
+        long total = 0;
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(total * percentile / 100);
+        long sum = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            sum += counts[i];
+            if (sum >= threshold) {
+                return getBucketUpperBoundMicros(i);
+            }
+        }
+        return getBucketUpperBoundMicros(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Appends the statistics as JSON object, only buckets with measurements are written.
+     *
+     * @param builder the builder to append to.
+     */
+    void appendJson(@NotNull StringBuilder builder) {
+        builder.append("{\"count\":").append(getCount())
+                .append(",\"totalNanos\":").append(getTotalNanos())
+                .append(",\"maxNanos\":").append(getMaxNanos())
+                .append(",\"histogram\":[");
+        boolean first = true;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucketCount = buckets.get(i);
+            if (bucketCount > 0) {
+                if (!first) {
+                    builder.append(',');
+                }
+                builder.append("{\"upperBoundMicros\":").append(getBucketUpperBoundMicros(i))
+                        .append(",\"count\":").append(bucketCount).append('}');
+                first = false;
+            }
+        }
+        builder.append("]}");
+    }
+
+    /**
+     * Returns the histogram bucket of a measurement.
+     *
+     * @param nanos the measured time in nanoseconds.
+     * @return the bucket index.
+     */
+    private static int bucketOf(long nanos) {
+        long micros = nanos / 1000;
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+}
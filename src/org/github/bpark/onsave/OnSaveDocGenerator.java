@@ -0,0 +1,267 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.onsave;
+
+import com.intellij.AppTopics;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.AbstractProjectComponent;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.FileDocumentManagerAdapter;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import org.github.bpark.config.DocConfigService;
+import org.github.bpark.config.TemplateSnapshot;
+import org.github.bpark.generator.DocEdit;
+import org.github.bpark.generator.JavadocGenerator;
+import org.github.bpark.util.GenDocPsiUtil;
+import org.github.bpark.util.MethodType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Documents the accessors added since the last save when a java file is saved. The methods added to a file are
+ * remembered while the user types; on save the undocumented setters and getters among them are rendered and inserted
+ * with one write command, before the document text is written. Existing accessors are never touched: if a class or
+ * method is replaced, for example by a paste, an undo or a revert, only the methods whose signature the replaced
+ * element did not contain are remembered. Only active if the on save generation is switched on.
+ * <p/>
+ * The work per save is logged, a save exceeding {@linkplain #SAVE_BUDGET_MILLIS} is logged on info level. The
+ * measured work starts after the document commit, which is a no-op for a document committed while the user typed.
+ * The budget is verified by OnSaveDocGeneratorPerformanceTest, which measures the same section.
+ *
+ * @author Burt Parkers
+ */
+public class OnSaveDocGenerator extends AbstractProjectComponent {
+
+    /** The logger. */
+    private static final Logger LOG = Logger.getInstance("#" + OnSaveDocGenerator.class.getName());
+
+    /** The expected maximum of the work per save in milliseconds. */
+    static final long SAVE_BUDGET_MILLIS = 5;
+
+    /** Maximum number of remembered methods per file, further methods are ignored until the next save. */
+    private static final int MAX_METHODS_PER_FILE = 1000;
+
+    /** The methods added since the last save, per file. Only accessed in the event dispatch thread. */
+    private final Map<VirtualFile, Set<PsiMethod>> addedMethods = new HashMap<VirtualFile, Set<PsiMethod>>();
+
+    /** The signatures of the methods of the element being replaced. Only accessed in the event dispatch thread. */
+    private Set<String> replacedSignatures = Collections.emptySet();
+
+
+    /**
+     * Constructor.
+     *
+     * @param project the project.
+     */
+    public OnSaveDocGenerator(@NotNull Project project) {
+        super(project);
+    }
+
+    @Override
+    public void projectOpened() {
+        PsiManager.getInstance(myProject).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+            @Override
+            public void childAdded(PsiTreeChangeEvent event) {
+                methodsAdded(event.getFile(), event.getChild(), Collections.<String>emptySet());
+            }
+
+            @Override
+            public void beforeChildReplacement(PsiTreeChangeEvent event) {
+                replacedSignatures = Collections.emptySet();
+                if (event.getFile() instanceof PsiJavaFile && DocConfigService.getInstance().isGenerateOnSave()) {
+                    replacedSignatures = getSignatures(getMethods(event.getOldChild()));
+                }
+            }
+
+            @Override
+            public void childReplaced(PsiTreeChangeEvent event) {
+                methodsAdded(event.getFile(), event.getNewChild(), replacedSignatures);
+                replacedSignatures = Collections.emptySet();
+            }
+        }, myProject);
+        ApplicationManager.getApplication().getMessageBus().connect(myProject).subscribe(AppTopics.FILE_DOCUMENT_SYNC,
+                new FileDocumentManagerAdapter() {
+                    @Override
+                    public void beforeDocumentSaving(Document document) {
+                        documentSaving(document);
+                    }
+                });
+    }
+
+    @Override
+    public void projectClosed() {
+        addedMethods.clear();
+    }
+
+    @NotNull
+    @Override
+    public String getComponentName() {
+        return "gen-javadoc.OnSaveDocGenerator";
+    }
+
+    /**
+     * Remembers the new methods of an added or replaced element. The accessor check is postponed to the save, while
+     * the user types the method is usually incomplete.
+     *
+     * @param psiFile the changed file, null for non physical changes.
+     * @param element the added element.
+     * @param existingSignatures the signatures of the methods of the replaced element, these methods are not new.
+     */
+    private void methodsAdded(@Nullable PsiFile psiFile, @Nullable PsiElement element,
+                              @NotNull Set<String> existingSignatures) {
+        if (!(psiFile instanceof PsiJavaFile) || !DocConfigService.getInstance().isGenerateOnSave()) {
+            return;
+        }
+        PsiMethod[] methods = getMethods(element);
+        if (methods.length == 0) {
+            return;
+        }
+        VirtualFile file = psiFile.getViewProvider().getVirtualFile();
+        Set<PsiMethod> fileMethods = addedMethods.get(file);
+        if (fileMethods == null) {
+            fileMethods = new LinkedHashSet<PsiMethod>();
+            addedMethods.put(file, fileMethods);
+        }
+        for (PsiMethod method : methods) {
+            if (fileMethods.size() < MAX_METHODS_PER_FILE && !existingSignatures.contains(getSignature(method))) {
+                fileMethods.add(method);
+            }
+        }
+    }
+
+    /**
+     * Returns the methods of an element.
+     *
+     * @param element the element.
+     * @return the method itself, the methods of a class, otherwise an empty array.
+     */
+    @NotNull
+    private static PsiMethod[] getMethods(@Nullable PsiElement element) {
+        if (element instanceof PsiMethod) {
+            return new PsiMethod[]{(PsiMethod) element};
+        }
+        if (element instanceof PsiClass) {
+            return ((PsiClass) element).getMethods();
+        }
+        return PsiMethod.EMPTY_ARRAY;
+    }
+
+    /**
+     * Returns the signatures of methods.
+     *
+     * @param methods the methods.
+     * @return the signatures, see {@linkplain #getSignature(PsiMethod)}.
+     */
+    @NotNull
+    private static Set<String> getSignatures(@NotNull PsiMethod[] methods) {
+        if (methods.length == 0) {
+            return Collections.emptySet();
+        }
+        Set<String> signatures = new HashSet<String>();
+        for (PsiMethod method : methods) {
+            signatures.add(getSignature(method));
+        }
+        return signatures;
+    }
+
+    /**
+     * Returns the signature of a method, its name and parameter types.
+     *
+     * @param method the method.
+     * @return the signature, for example setName(java.lang.String).
+     */
+    @NotNull
+    private static String getSignature(@NotNull PsiMethod method) {
+        StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        PsiParameter[] parameters = method.getParameterList().getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            signature.append(parameters[i].getType().getCanonicalText());
+        }
+        return signature.append(')').toString();
+    }
+
+    /**
+     * Documents the new accessors of a document before it is saved.
+     *
+     * @param document the saved document.
+     */
+    void documentSaving(@NotNull Document document) {
+        VirtualFile file = FileDocumentManager.getInstance().getFile(document);
+        Set<PsiMethod> fileMethods = file != null ? addedMethods.remove(file) : null;
+        if (fileMethods == null || !DocConfigService.getInstance().isGenerateOnSave() || myProject.isDisposed()) {
+            return;
+        }
+        PsiDocumentManager psiDocumentManager = PsiDocumentManager.getInstance(myProject);
+        psiDocumentManager.commitDocument(document);
+        long start = System.nanoTime();
+        PsiFile psiFile = psiDocumentManager.getPsiFile(document);
+        if (!(psiFile instanceof PsiJavaFile)) {
+            return;
+        }
+
+        List<PsiMethod> newAccessors = new ArrayList<PsiMethod>();
+        for (PsiMethod method : fileMethods) {
+            if (method.isValid() && method.getContainingFile() == psiFile && method.getDocComment() == null
+                    && MethodType.SETTER_AND_GETTER.isType(method) && !GenDocPsiUtil.containsOverride(method)) {
+                newAccessors.add(method);
+            }
+        }
+        if (newAccessors.isEmpty()) {
+            return;
+        }
+
+        TemplateSnapshot snapshot = DocConfigService.getInstance().getSnapshot();
+        JavadocGenerator generator = new JavadocGenerator(myProject, false, snapshot.getFormatMode());
+        List<DocEdit> docEdits = generator.prepare((PsiJavaFile) psiFile, newAccessors, snapshot);
+        generator.apply(psiFile, docEdits);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        String message = "Documented " + generator.getWrittenCount() + " new accessors of " + file.getName()
+                + " on save in " + millis + " ms";
+        if (millis > SAVE_BUDGET_MILLIS) {
+            LOG.info(message + ", above the budget of " + SAVE_BUDGET_MILLIS + " ms");
+        } else {
+            LOG.debug(message);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.util;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiModifierList;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Discovery of the accessors of a class, based on the stubs. Only the method signatures and the modifier lists are
+ * read, so the AST of a closed file is not loaded. The accessors of a class are cached until a change outside of code
+ * blocks.
+ *
+ * @author Burt Parkers
+ */
+public final class AccessorDiscovery {
+
+    /** Key of the cached accessors. */
+    private static final Key<CachedValue<List<PsiMethod>>> ACCESSORS_KEY = Key.create("gen-javadoc.accessors");
+
+    /** Prevents util class instantiation. */
+    private AccessorDiscovery() {
+    }
+
+    /**
+     * Returns the setters and getters of a class without override annotation, nested classes are not included. Must
+     * be called inside a read action.
+     *
+     * @param psiClass the class.
+     * @return the accessors in source order.
+     */
+    @NotNull
+    public static List<PsiMethod> getAccessors(@NotNull final PsiClass psiClass) {
+        return CachedValuesManager.getManager(psiClass.getProject()).getCachedValue(psiClass, ACCESSORS_KEY,
+                new CachedValueProvider<List<PsiMethod>>() {
+                    public Result<List<PsiMethod>> compute() {
+                        return Result.create(computeAccessors(psiClass),
+                                PsiModificationTracker.OUT_OF_CODE_BLOCK_MODIFICATION_COUNT);
+                    }
+                }, false);
+    }
+
+    /**
+     * Computes the setters and getters of a class without caching.
+     *
+     * @param psiClass the class.
+     * @return the accessors in source order.
+     */
+    @NotNull
+    public static List<PsiMethod> computeAccessors(@NotNull PsiClass psiClass) {
+        List<PsiMethod> accessors = new ArrayList<PsiMethod>();
+        for (PsiMethod psiMethod : psiClass.getMethods()) {
+            if (MethodType.SETTER_AND_GETTER.isType(psiMethod) && !hasOverride(psiMethod)) {
+                accessors.add(psiMethod);
+            }
+        }
+        return accessors.isEmpty() ? Collections.<PsiMethod>emptyList() : Collections.unmodifiableList(accessors);
+    }
+
+    /**
+     * Checks if a method has a override annotation, using the modifier list stub.
+     *
+     * @param psiMethod the method to check.
+     * @return true if the method has a override annotation, otherwise false.
+     */
+    public static boolean hasOverride(@NotNull PsiMethod psiMethod) {
+        PsiModifierList modifierList = psiMethod.getModifierList();
+        return modifierList.findAnnotation(Override.class.getName()) != null;
+    }
+}
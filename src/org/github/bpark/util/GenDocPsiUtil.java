@@ -25,13 +25,13 @@
 
 package org.github.bpark.util;
 
-import com.intellij.codeInsight.generation.PsiElementClassMember;
-import com.intellij.codeInsight.generation.PsiMethodMember;
 import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.openapi.actionSystem.LangDataKeys;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.psi.*;
 import com.intellij.psi.util.PsiTreeUtil;
+import org.github.bpark.metrics.RunMetrics;
+import org.github.bpark.metrics.Stage;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -58,53 +58,82 @@ public final class GenDocPsiUtil {
      */
     @NotNull
     public static List<PsiMethod> retrieveMethods(@NotNull PsiClass psiClass, @NotNull MethodType methodType) {
+        return retrieveMethods(psiClass, methodType, RunMetrics.DISABLED);
+    }
+
+    /**
+     * Filters a list of methods and measures the {@linkplain Stage#DISCOVERY} and the
+     * {@linkplain Stage#CLASSIFICATION} of each method. The accessors are discovered with the stubs by the
+     * {@linkplain AccessorDiscovery}, the AST is not loaded.
+     *
+     * @param psiClass the class containing the methods.
+     * @param methodType the filter criteria.
+     * @param metrics the metrics of the current run.
+     * @return the filtered method list.
+     */
+    @NotNull
+    public static List<PsiMethod> retrieveMethods(@NotNull PsiClass psiClass, @NotNull MethodType methodType,
+                                                  @NotNull RunMetrics metrics) {
+        long discoveryStart = System.nanoTime();
 
         List<PsiMethod> filteredMethodList = new ArrayList<PsiMethod>();
 
-        PsiElement[] psiClassChildren = psiClass.getChildren();
-        List<PsiMethod> methodList = extractPsiMethods(psiClassChildren);
-        for (final PsiMethod psiMethod : methodList) {
+        for (PsiMethod psiMethod : AccessorDiscovery.getAccessors(psiClass)) {
+            long classificationStart = System.nanoTime();
             boolean isMethodType = methodType.isType(psiMethod);
-            if (isMethodType && !containsOverride(psiMethod)) {
+            metrics.record(Stage.CLASSIFICATION, classificationStart);
+            if (isMethodType) {
                 filteredMethodList.add(psiMethod);
             }
         }
+        metrics.record(Stage.DISCOVERY, discoveryStart);
         return filteredMethodList;
     }
 
     /**
-     * Converts a list of {@linkplain PsiMethod} to {@linkplain PsiMethodMember}.
+     * Filters the methods of all classes of a file, including the nested classes, in one traversal.
      *
-     * @param methodList the list to convert.
-     * @return the converted list.
+     * @param psiJavaFile the file.
+     * @param methodType the filter criteria.
+     * @param metrics the metrics of the current run.
+     * @return the filtered method list, in the order of {@linkplain #collectClasses(PsiJavaFile)}.
      */
     @NotNull
-    public static PsiMethodMember[] convertPsiMethodsToMembers(@NotNull List<PsiMethod> methodList) {
-        final PsiMethodMember[] dialogMembers = new PsiMethodMember[methodList.size()];
-        for (int i = 0; i < dialogMembers.length; i++) {
-            dialogMembers[i] = new PsiMethodMember(methodList.get(i));
+    public static List<PsiMethod> retrieveMethods(@NotNull PsiJavaFile psiJavaFile, @NotNull MethodType methodType,
+                                                  @NotNull RunMetrics metrics) {
+        List<PsiMethod> filteredMethodList = new ArrayList<PsiMethod>();
+        for (PsiClass psiClass : collectClasses(psiJavaFile)) {
+            filteredMethodList.addAll(retrieveMethods(psiClass, methodType, metrics));
         }
-        return dialogMembers;
+        return filteredMethodList;
     }
 
     /**
-     * Converts a list of {@linkplain PsiMethodMember} to {@linkplain PsiMethod}.
+     * Filters the methods of a class by walking the children of the class and of each modifier list. This loads the
+     * AST of the file, it is kept to compare it with the {@linkplain AccessorDiscovery}.
      *
-     * @param classMemberList the list to convert.
-     * @return the converted list.
+     * @param psiClass the class containing the methods.
+     * @param methodType the filter criteria.
+     * @return the filtered method list.
      */
     @NotNull
-    public static List<PsiMethod> convertMembersToPsiMethods(@NotNull List<PsiElementClassMember> classMemberList) {
-        List<PsiMethod> psiMethodList = new ArrayList<PsiMethod>();
-        for (PsiElementClassMember psiElementClassMember : classMemberList) {
-            PsiElement psiElement = psiElementClassMember.getPsiElement();
-            psiMethodList.add((PsiMethod) psiElement);
+    public static List<PsiMethod> retrieveMethodsFromTree(@NotNull PsiClass psiClass,
+                                                          @NotNull MethodType methodType) {
+        List<PsiMethod> filteredMethodList = new ArrayList<PsiMethod>();
+
+        PsiElement[] psiClassChildren = psiClass.getChildren();
+        List<PsiMethod> methodList = extractPsiMethods(psiClassChildren);
+        for (final PsiMethod psiMethod : methodList) {
+            boolean isMethodType = methodType.isType(psiMethod);
+            if (isMethodType && !containsOverrideInTree(psiMethod)) {
+                filteredMethodList.add(psiMethod);
+            }
         }
-        return psiMethodList;
+        return filteredMethodList;
     }
 
     /**
-     * Filters a list of methods, independent from the class.
+     * Filters a list of methods, independent from the class. Invalid methods are removed.
      *
      * @param methodList the list to filter.
      * @param methodType the filter criteria.
@@ -112,9 +141,30 @@ public final class GenDocPsiUtil {
      */
     @NotNull
     public static List<PsiMethod> filter(@NotNull List<PsiMethod> methodList, @NotNull MethodType methodType) {
+        return filter(methodList, methodType, RunMetrics.DISABLED);
+    }
+
+    /**
+     * Filters a list of methods, independent from the class, and measures the {@linkplain Stage#CLASSIFICATION} of
+     * each method. Invalid methods are removed.
+     *
+     * @param methodList the list to filter.
+     * @param methodType the filter criteria.
+     * @param metrics the metrics of the current run.
+     * @return the filtered list.
+     */
+    @NotNull
+    public static List<PsiMethod> filter(@NotNull List<PsiMethod> methodList, @NotNull MethodType methodType,
+                                         @NotNull RunMetrics metrics) {
         List<PsiMethod> filteredList = new ArrayList<PsiMethod>();
         for (PsiMethod psiMethod : methodList) {
-            if (methodType.isType(psiMethod) && !containsOverride(psiMethod)) {
+            if (!psiMethod.isValid()) {
+                continue;
+            }
+            long classificationStart = System.nanoTime();
+            boolean isMethodType = methodType.isType(psiMethod);
+            metrics.record(Stage.CLASSIFICATION, classificationStart);
+            if (isMethodType && !containsOverride(psiMethod)) {
                 filteredList.add(psiMethod);
             }
         }
@@ -151,12 +201,38 @@ public final class GenDocPsiUtil {
     }
 
     /**
-     * Checks if a method has a override annotation.
+     * Returns all classes of a file, including the nested classes. Interfaces are ignored like in
+     * {@linkplain #getSubjectClass(Editor, DataContext)}.
+     *
+     * @param psiJavaFile the file.
+     * @return the classes, outer classes before their nested classes.
+     */
+    @NotNull
+    public static List<PsiClass> collectClasses(@NotNull PsiJavaFile psiJavaFile) {
+        List<PsiClass> classList = new ArrayList<PsiClass>();
+        for (PsiClass psiClass : psiJavaFile.getClasses()) {
+            collectClasses(psiClass, classList);
+        }
+        return classList;
+    }
+
+    /**
+     * Checks if a method has a override annotation, using the modifier list stub.
      *
      * @param psiMethod the method to check.
      * @return true if the method has a override annotation, otherwise false.
      */
     public static boolean containsOverride(PsiMethod psiMethod) {
+        return AccessorDiscovery.hasOverride(psiMethod);
+    }
+
+    /**
+     * Checks if a method has a override annotation by walking the children of the modifier list.
+     *
+     * @param psiMethod the method to check.
+     * @return true if the last annotation of the method is a override annotation, otherwise false.
+     */
+    private static boolean containsOverrideInTree(PsiMethod psiMethod) {
         boolean override = false;
         PsiElement firstChild = psiMethod.getFirstChild();
         if (firstChild != null) {
@@ -171,6 +247,21 @@ public final class GenDocPsiUtil {
         return override;
     }
 
+    /**
+     * Adds a class and its nested classes to a list, interfaces are skipped.
+     *
+     * @param psiClass the class.
+     * @param classList the list to add the classes to.
+     */
+    private static void collectClasses(@NotNull PsiClass psiClass, @NotNull List<PsiClass> classList) {
+        if (!psiClass.isInterface()) {
+            classList.add(psiClass);
+        }
+        for (PsiClass innerClass : psiClass.getInnerClasses()) {
+            collectClasses(innerClass, classList);
+        }
+    }
+
     /**
      * Extracts all psi methods from a list of psi elements.
      *
@@ -37,21 +37,21 @@ public enum MethodType {
 
     /** Constant for setter. */
     SETTER {
-        boolean isType(PsiMethod psiMethod) {
+        public boolean isType(PsiMethod psiMethod) {
             return PropertyUtil.isSimplePropertySetter(psiMethod);
         }
     },
 
     /** Constant for getter. */
     GETTER {
-        boolean isType(PsiMethod psiMethod) {
+        public boolean isType(PsiMethod psiMethod) {
             return PropertyUtil.isSimplePropertyGetter(psiMethod);
         }
     },
 
     /** Constant for setter and getter. */
     SETTER_AND_GETTER {
-        boolean isType(PsiMethod psiMethod) {
+        public boolean isType(PsiMethod psiMethod) {
             return PropertyUtil.isSimplePropertySetter(psiMethod) || PropertyUtil.isSimplePropertyGetter(psiMethod);
         }
     };
@@ -62,6 +62,6 @@ public enum MethodType {
      * @param psiMethod the method to check.
      * @return true if the method is of the currents enum type.
      */
-    abstract boolean isType(PsiMethod psiMethod);
+    public abstract boolean isType(PsiMethod psiMethod);
 
 }
@@ -0,0 +1,230 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.vcs;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileTypes.StdFileTypes;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vcs.VcsException;
+import com.intellij.openapi.vcs.changes.Change;
+import com.intellij.openapi.vcs.changes.ContentRevision;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiMethod;
+import org.github.bpark.config.TemplateSnapshot;
+import org.github.bpark.generator.DocEdit;
+import org.github.bpark.generator.JavadocGenerator;
+import org.github.bpark.util.GenDocPsiUtil;
+import org.github.bpark.util.MethodType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Documents only the accessors in changed lines of locally changed java files. The changes are taken from the
+ * change list manager, the base revisions come from the local repository, so the work is proportional to the diff
+ * and not to the size of the project. Existing comments are not overwritten.
+ *
+ * @author Burt Parkers
+ */
+public class ChangedAccessorDocumenter {
+
+    /** The logger. */
+    private static final Logger LOG = Logger.getInstance("#" + ChangedAccessorDocumenter.class.getName());
+
+    /** The project. */
+    private final Project project;
+
+    /** The generator. */
+    private final JavadocGenerator generator;
+
+    /** The settings. */
+    private final TemplateSnapshot snapshot;
+
+    /** The prepared edits per file, in the order of the changes. */
+    private final Map<PsiFile, List<DocEdit>> fileEdits = new LinkedHashMap<PsiFile, List<DocEdit>>();
+
+
+    /**
+     * Constructor.
+     *
+     * @param project the project.
+     * @param generator the generator.
+     * @param snapshot the settings.
+     */
+    public ChangedAccessorDocumenter(@NotNull Project project, @NotNull JavadocGenerator generator,
+                                     @NotNull TemplateSnapshot snapshot) {
+        this.project = project;
+        this.generator = generator;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Renders the comments of the undocumented accessors in changed lines. Deleted files and files which are not
+     * java files are ignored. Must not be called inside a read action, the base revisions are loaded outside of it.
+     *
+     * @param changes the changes.
+     * @param indicator the progress indicator.
+     */
+    public void prepare(@NotNull Collection<Change> changes, @NotNull ProgressIndicator indicator) {
+        int index = 0;
+        for (Change change : changes) {
+            indicator.checkCanceled();
+            indicator.setFraction((double) index++ / changes.size());
+            final VirtualFile file = getJavaFile(change);
+            if (file == null) {
+                continue;
+            }
+            indicator.setText2(file.getPresentableUrl());
+            final String baseText = getBaseText(change);
+            ApplicationManager.getApplication().runReadAction(new Runnable() {
+                public void run() {
+                    prepareFile(file, baseText);
+                }
+            });
+        }
+    }
+
+    /**
+     * Inserts the prepared comments, one write command per file. Must be called in the event dispatch thread.
+     *
+     * @return the number of changed files.
+     */
+    public int apply() {
+        int changedFileCount = 0;
+        for (Map.Entry<PsiFile, List<DocEdit>> entry : fileEdits.entrySet()) {
+            if (entry.getKey().isValid()) {
+                generator.apply(entry.getKey(), entry.getValue());
+                changedFileCount++;
+            }
+        }
+        return changedFileCount;
+    }
+
+    /**
+     * Returns the number of prepared comments.
+     *
+     * @return the number of comments to insert.
+     */
+    public int getEditCount() {
+        int editCount = 0;
+        for (List<DocEdit> docEdits : fileEdits.values()) {
+            editCount += docEdits.size();
+        }
+        return editCount;
+    }
+
+    /**
+     * Renders the comments of the accessors in changed lines of one file. Must be called inside a read action.
+     *
+     * @param file the file.
+     * @param baseText the text of the base revision, null for a new file.
+     */
+    private void prepareFile(@NotNull VirtualFile file, @Nullable String baseText) {
+        PsiFile psiFile = file.isValid() ? PsiManager.getInstance(project).findFile(file) : null;
+        Document document = file.isValid() ? FileDocumentManager.getInstance().getDocument(file) : null;
+        if (!(psiFile instanceof PsiJavaFile) || document == null) {
+            return;
+        }
+        ChangedLines changedLines = ChangedLines.compare(baseText, document.getText());
+        if (changedLines.isEmpty()) {
+            return;
+        }
+        List<DocEdit> docEdits = new ArrayList<DocEdit>();
+        for (PsiClass psiClass : GenDocPsiUtil.collectClasses((PsiJavaFile) psiFile)) {
+            List<PsiMethod> changedMethods = new ArrayList<PsiMethod>();
+            for (PsiMethod psiMethod : GenDocPsiUtil.retrieveMethods(psiClass, MethodType.SETTER_AND_GETTER,
+                    generator.getMetrics())) {
+                TextRange range = psiMethod.getTextRange();
+                if (changedLines.intersects(document.getLineNumber(range.getStartOffset()),
+                        document.getLineNumber(range.getEndOffset()))) {
+                    changedMethods.add(psiMethod);
+                }
+            }
+            if (!changedMethods.isEmpty()) {
+                docEdits.addAll(generator.prepare(psiClass,
+                        JavadocGenerator.groupByConfig(changedMethods, snapshot, generator.getMetrics())));
+            }
+        }
+        if (!docEdits.isEmpty()) {
+            fileEdits.put(psiFile, docEdits);
+        }
+    }
+
+    /**
+     * Returns the java file of an added, modified or moved file.
+     *
+     * @param change the change.
+     * @return the file, null for deleted files and other file types.
+     */
+    @Nullable
+    private static VirtualFile getJavaFile(@NotNull Change change) {
+        final ContentRevision afterRevision = change.getAfterRevision();
+        if (afterRevision == null) {
+            return null;
+        }
+        VirtualFile file = ApplicationManager.getApplication().runReadAction(new Computable<VirtualFile>() {
+            public VirtualFile compute() {
+                return afterRevision.getFile().getVirtualFile();
+            }
+        });
+        return file != null && file.getFileType() == StdFileTypes.JAVA ? file : null;
+    }
+
+    /**
+     * Loads the text of the base revision from the local repository.
+     *
+     * @param change the change.
+     * @return the text, null for a new file or if the text cannot be loaded.
+     */
+    @Nullable
+    private static String getBaseText(@NotNull Change change) {
+        ContentRevision beforeRevision = change.getBeforeRevision();
+        if (beforeRevision == null) {
+            return null;
+        }
+        try {
+            return beforeRevision.getContent();
+        } catch (VcsException e) {
+            LOG.info("Base revision of " + beforeRevision.getFile().getPath() + " not available: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.vcs;
+
+import com.intellij.util.diff.Diff;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+
+/**
+ * The changed lines of a file, computed with a line diff between the base revision and the current text. A new file
+ * or a file which cannot be compared is changed completely.
+ *
+ * @author Burt Parkers
+ */
+public final class ChangedLines {
+
+    /** Lines of a file which is changed completely. */
+    public static final ChangedLines ALL = new ChangedLines(null);
+
+    /** The changed lines of the current text, null if all lines are changed. */
+    private final BitSet lines;
+
+
+    /**
+     * Constructor.
+     *
+     * @param lines the changed lines of the current text, null if all lines are changed.
+     */
+    private ChangedLines(@Nullable BitSet lines) {
+        this.lines = lines;
+    }
+
+    /**
+     * Compares the base revision with the current text. For deleted lines the line after the deletion is marked, so
+     * an accessor containing the deletion counts as changed.
+     *
+     * @param baseText the text of the base revision, null for a new file.
+     * @param currentText the current text.
+     * @return the changed lines.
+     */
+    @NotNull
+    public static ChangedLines compare(@Nullable String baseText, @NotNull String currentText) {
+        if (baseText == null) {
+            return ALL;
+        }
+        Diff.Change change;
+        try {
+            change = Diff.buildChanges(splitLines(baseText), splitLines(currentText));
+        } catch (Exception e) {
+            // the diff gives up on huge files, document them completely
+            return ALL;
+        }
+        BitSet lines = new BitSet();
+        for (; change != null; change = change.link) {
+            if (change.inserted > 0) {
+                lines.set(change.line1, change.line1 + change.inserted);
+            } else {
+                lines.set(change.line1);
+            }
+        }
+        return new ChangedLines(lines);
+    }
+
+    /**
+     * Checks if a line range contains a changed line.
+     *
+     * @param startLine the first line, zero based.
+     * @param endLine the last line, inclusive.
+     * @return true if at least one line of the range is changed, otherwise false.
+     */
+    public boolean intersects(int startLine, int endLine) {
+        if (lines == null) {
+            return true;
+        }
+        int changedLine = lines.nextSetBit(startLine);
+        return changedLine >= 0 && changedLine <= endLine;
+    }
+
+    /**
+     * Checks if nothing is changed, e.g. only the line separators or the encoding.
+     *
+     * @return true if no line is changed, otherwise false.
+     */
+    public boolean isEmpty() {
+        return lines != null && lines.isEmpty();
+    }
+
+    /**
+     * Splits a text into lines, independent of the line separator.
+     *
+     * @param text the text.
+     * @return the lines.
+     */
+    @NotNull
+    private static String[] splitLines(@NotNull String text) {
+        return text.split("\r\n|\r|\n", -1);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.vcs;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vcs.CheckinProjectPanel;
+import com.intellij.openapi.vcs.changes.Change;
+import com.intellij.openapi.vcs.changes.CommitContext;
+import com.intellij.openapi.vcs.checkin.CheckinHandler;
+import com.intellij.openapi.vcs.checkin.CheckinHandlerFactory;
+import com.intellij.openapi.vcs.ui.RefreshableOnComponent;
+import org.github.bpark.config.DocConfigService;
+import org.github.bpark.config.TemplateSnapshot;
+import org.github.bpark.generator.JavadocGenerator;
+import org.github.bpark.metrics.PipelineMetrics;
+import org.github.bpark.metrics.RunMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Adds the before commit option to document the accessors in changed lines of the committed files. The option is
+ * stored per project and off by default.
+ *
+ * @author Burt Parkers
+ */
+public class DocGenCheckinHandlerFactory extends CheckinHandlerFactory {
+
+    /** Key of the stored option. */
+    private static final String ENABLED_KEY = "gendoc.checkin.enabled";
+
+    @NotNull
+    @Override
+    public CheckinHandler createHandler(CheckinProjectPanel panel, CommitContext commitContext) {
+        return new DocGenCheckinHandler(panel);
+    }
+
+    /**
+     * Handler generating the documentation before the commit.
+     */
+    private static class DocGenCheckinHandler extends CheckinHandler {
+
+        /** The commit panel. */
+        private final CheckinProjectPanel panel;
+
+        /**
+         * Constructor.
+         *
+         * @param panel the commit panel.
+         */
+        DocGenCheckinHandler(@NotNull CheckinProjectPanel panel) {
+            this.panel = panel;
+        }
+
+        @Override
+        public RefreshableOnComponent getBeforeCheckinConfigurationPanel() {
+            final JCheckBox checkBox = new JCheckBox("Generate JavaDoc for changed accessors");
+            return new RefreshableOnComponent() {
+                public JComponent getComponent() {
+                    JPanel checkBoxPanel = new JPanel(new BorderLayout());
+                    checkBoxPanel.add(checkBox);
+                    return checkBoxPanel;
+                }
+
+                public void refresh() {
+                }
+
+                public void saveState() {
+                    PropertiesComponent.getInstance(panel.getProject()).setValue(ENABLED_KEY,
+                            Boolean.toString(checkBox.isSelected()));
+                }
+
+                public void restoreState() {
+                    checkBox.setSelected(isEnabled(panel.getProject()));
+                }
+            };
+        }
+
+        @Override
+        public ReturnResult beforeCheckin() {
+            final Project project = panel.getProject();
+            if (!isEnabled(project)) {
+                return ReturnResult.COMMIT;
+            }
+            final Collection<Change> changes = new ArrayList<Change>(panel.getSelectedChanges());
+            TemplateSnapshot snapshot = DocConfigService.getInstance().getSnapshot();
+            RunMetrics metrics = PipelineMetrics.getInstance().startRun("Generate JavaDoc before commit");
+            JavadocGenerator generator = new JavadocGenerator(project, false, snapshot.getFormatMode(), metrics);
+            final ChangedAccessorDocumenter documenter = new ChangedAccessorDocumenter(project, generator, snapshot);
+
+            boolean completed = ProgressManager.getInstance().runProcessWithProgressSynchronously(new Runnable() {
+                public void run() {
+                    documenter.prepare(changes, ProgressManager.getInstance().getProgressIndicator());
+                }
+            }, "Generating JavaDoc for Changed Accessors", true, project);
+            if (!completed) {
+                int answer = Messages.showYesNoDialog(project, "JavaDoc generation was cancelled. Commit anyway?",
+                        "Generate JavaDoc", Messages.getQuestionIcon());
+                return answer == 0 ? ReturnResult.COMMIT : ReturnResult.CANCEL;
+            }
+            if (documenter.getEditCount() > 0) {
+                documenter.apply();
+                FileDocumentManager.getInstance().saveAllDocuments();
+            }
+            return ReturnResult.COMMIT;
+        }
+
+        /**
+         * Returns the stored option.
+         *
+         * @param project the project.
+         * @return true if the documentation is generated before the commit, otherwise false.
+         */
+        private static boolean isEnabled(@NotNull Project project) {
+            return Boolean.parseBoolean(PropertiesComponent.getInstance(project).getValue(ENABLED_KEY));
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * This file is part of gen-javadoc.
+ *
+ * Copyright (c) 2011 by individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution
+ * for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.github.bpark.onsave;
+
+import com.intellij.openapi.application.Result;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElementFactory;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiMethod;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+import com.intellij.util.ThrowableRunnable;
+import org.github.bpark.config.DocConfigService;
+import org.github.bpark.config.GeneratorConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the {@linkplain OnSaveDocGenerator}: only new accessors are documented, and the work per save stays within
+ * {@linkplain OnSaveDocGenerator#SAVE_BUDGET_MILLIS}.
+ *
+ * @author Burt Parkers
+ */
+public class OnSaveDocGeneratorPerformanceTest extends LightCodeInsightFixtureTestCase {
+
+    /** Number of saved files per measurement, each with one new getter and setter. */
+    private static final int FILE_COUNT = 10;
+
+    /** Number of existing undocumented properties per file. */
+    private static final int PROPERTY_COUNT = 25;
+
+    /** Number of saves before the measurement. */
+    private static final int WARM_UP_COUNT = 2;
+
+    /** The generator under test. */
+    private OnSaveDocGenerator onSaveDocGenerator;
+
+    /** The saved on save generation flag, restored after the test. */
+    private boolean generateOnSave;
+
+    /** Counter for unique names of the added accessors. */
+    private int propertyCounter;
+
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        onSaveDocGenerator = getProject().getComponent(OnSaveDocGenerator.class);
+        generateOnSave = DocConfigService.getInstance().isGenerateOnSave();
+        new GeneratorConfig().saveGenerateOnSave(true);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            new GeneratorConfig().saveGenerateOnSave(generateOnSave);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    /** Tests that the added accessors are documented and the existing ones are not touched. */
+    public void testOnlyNewAccessorsDocumented() {
+        PsiJavaFile psiFile = createFile(0);
+        PsiClass psiClass = psiFile.getClasses()[0];
+        addAccessors(psiClass);
+
+        onSaveDocGenerator.documentSaving(getDocument(psiFile));
+
+        for (PsiMethod method : psiClass.getMethods()) {
+            boolean added = method.getName().contains("Added");
+            assertEquals(method.getName(), added, method.getDocComment() != null);
+        }
+    }
+
+    /** Tests that the work per save stays within the budget, measured over several saves. */
+    public void testSavePerformance() {
+        final List<PsiJavaFile> psiFiles = new ArrayList<PsiJavaFile>();
+        for (int i = 0; i < FILE_COUNT; i++) {
+            psiFiles.add(createFile(i));
+        }
+        // warm up the templates, the caches and the formatter, the second save runs the compiled code paths
+        for (int i = 0; i < WARM_UP_COUNT; i++) {
+            addAccessors(psiFiles.get(i).getClasses()[0]);
+            onSaveDocGenerator.documentSaving(getDocument(psiFiles.get(i)));
+        }
+
+        int expectedMillis = (int) (FILE_COUNT * OnSaveDocGenerator.SAVE_BUDGET_MILLIS);
+        PlatformTestUtil.startPerformanceTest("documenting new accessors on save", expectedMillis,
+                new ThrowableRunnable() {
+                    public void run() throws Throwable {
+                        for (PsiJavaFile psiFile : psiFiles) {
+                            onSaveDocGenerator.documentSaving(getDocument(psiFile));
+                        }
+                    }
+                }).setup(new ThrowableRunnable() {
+                    public void run() throws Throwable {
+                        for (PsiJavaFile psiFile : psiFiles) {
+                            addAccessors(psiFile.getClasses()[0]);
+                        }
+                    }
+                }).cpuBound().assertTiming();
+    }
+
+    /**
+     * Creates a class with undocumented accessors.
+     *
+     * @param index the index of the class.
+     * @return the file.
+     */
+    private PsiJavaFile createFile(int index) {
+        StringBuilder text = new StringBuilder("package test;\n\npublic class Person" + index + " {\n");
+        for (int i = 0; i < PROPERTY_COUNT; i++) {
+            text.append("    private String name").append(i).append(";\n");
+        }
+        for (int i = 0; i < PROPERTY_COUNT; i++) {
+            text.append("    public String getName").append(i).append("() {\n        return name").append(i)
+                    .append(";\n    }\n");
+            text.append("    public void setName").append(i).append("(String name").append(i)
+                    .append(") {\n        this.name").append(i).append(" = name").append(i).append(";\n    }\n");
+        }
+        text.append("}\n");
+        PsiJavaFile psiFile = (PsiJavaFile) myFixture.addFileToProject("test/Person" + index + ".java",
+                text.toString());
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+        return psiFile;
+    }
+
+    /**
+     * Adds a new getter and setter to a class, as the user would do between two saves.
+     *
+     * @param psiClass the class.
+     */
+    private void addAccessors(final PsiClass psiClass) {
+        final int index = ++propertyCounter;
+        new WriteCommandAction<Object>(getProject(), psiClass.getContainingFile()) {
+            @Override
+            protected void run(Result<Object> result) throws Throwable {
+                PsiElementFactory factory = JavaPsiFacade.getElementFactory(getProject());
+                psiClass.add(factory.createMethodFromText("public String getAdded" + index + "() {\n"
+                        + "    return null;\n}", psiClass));
+                psiClass.add(factory.createMethodFromText("public void setAdded" + index + "(String added" + index
+                        + ") {\n}", psiClass));
+            }
+        }.execute();
+        PsiDocumentManager.getInstance(getProject()).doPostponedOperationsAndUnblockDocument(
+                getDocument(psiClass.getContainingFile()));
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    }
+
+    /**
+     * Returns the document of a file.
+     *
+     * @param psiFile the file.
+     * @return the document.
+     */
+    private Document getDocument(PsiFile psiFile) {
+        return PsiDocumentManager.getInstance(getProject()).getDocument(psiFile);
+    }
+}